@@ -0,0 +1,35 @@
+package chess;
+
+/*
+  Posicoes usadas pelos benchmarks.
+    middlegame: Kiwipete, com muitas capturas, roques e pecas deslizantes.
+    endgame: poucas pecas, mas uma de cada tipo para cada benchmark de possibleMoves.
+    mate: pretas levaram mate, pior caso do testCheckMate (todas as respostas sao geradas e
+      nenhuma sobra depois do filtro de legalidade).
+ */
+final class BenchmarkPositions {
+  static final String MIDDLEGAME = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+  static final String ENDGAME = "3q2k1/5pp1/2b4p/8/3N4/1B3QP1/5PK1/3R4 w - - 0 40";
+  static final String MATE = "r1bqkb1r/pppp1Qpp/2n2n2/4p3/2B1P3/8/PPPP1PPP/RNB1K1NR b KQkq - 0 4";
+
+  private BenchmarkPositions() {
+  }
+
+  static String fen(String name) {
+    return switch (name) {
+      case "middlegame" -> MIDDLEGAME;
+      case "endgame" -> ENDGAME;
+      case "mate" -> MATE;
+      default -> throw new IllegalArgumentException("Unknown position: " + name);
+    };
+  }
+
+  //Um movimento legal de cada posicao para o benchmark de performChessMove: {origem, destino}.
+  static ChessPosition[] move(String name) {
+    return switch (name) {
+      case "middlegame" -> new ChessPosition[] {new ChessPosition('e', 2), new ChessPosition('a', 6)};
+      case "endgame" -> new ChessPosition[] {new ChessPosition('d', 4), new ChessPosition('e', 6)};
+      default -> throw new IllegalArgumentException("No benchmark move for position: " + name);
+    };
+  }
+}
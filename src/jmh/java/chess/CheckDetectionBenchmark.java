@@ -0,0 +1,47 @@
+package chess;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+//testCheck e testCheckMate sao package-private; o benchmark fica no pacote chess para chama-los.
+//testCheckMate testa o jogador da vez e usa o cache de movimentos, que e descartado a cada chamada
+//  para medir a geracao dos movimentos legais, como no primeiro teste depois de um lance.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CheckDetectionBenchmark {
+  @Param({"middlegame", "endgame", "mate"})
+  public String position;
+
+  private ChessMatch chessMatch;
+
+  @Setup
+  public void setup() {
+    chessMatch = Fen.load(BenchmarkPositions.fen(position));
+  }
+
+  @Benchmark
+  public boolean testCheck() {
+    return chessMatch.testCheck(chessMatch.getCurrentPlayer());
+  }
+
+  @Benchmark
+  public boolean testCheckMate() {
+    chessMatch.clearMoveCache();
+    return chessMatch.testCheckMate();
+  }
+}
@@ -0,0 +1,42 @@
+package chess;
+
+import chess.bitboard.MoveList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+//Todos os movimentos legais do jogador da vez em um MoveList reutilizado (rodar com -prof gc para ver a alocacao).
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LegalMoveGenerationBenchmark {
+  @Param({"middlegame", "endgame"})
+  public String position;
+
+  private ChessMatch chessMatch;
+  private final MoveList moves = new MoveList();
+
+  @Setup
+  public void setup() {
+    chessMatch = Fen.load(BenchmarkPositions.fen(position));
+  }
+
+  @Benchmark
+  public int legalMoves() {
+    chessMatch.legalMoves(moves);
+    return moves.size();
+  }
+}
@@ -0,0 +1,74 @@
+package chess;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+  performChessMove altera a partida, entao cada chamada precisa de uma copia nova.
+    As copias sao feitas em lotes de BATCH fora da medicao (Level.Invocation) e cada
+    invocacao executa o lance em todas: a invocacao leva mais de 1 ms, o minimo para
+    o JMH medir Level.Invocation sem distorcer, e o tempo sai por lance.
+  getPieces nao altera nada e usa so a posicao base (outro @State, sem copias).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoveExecutionBenchmark {
+  private static final int BATCH = 512;
+
+  @State(Scope.Thread)
+  public static class Base {
+    @Param({"middlegame", "endgame"})
+    public String position;
+
+    private ChessMatch chessMatch;
+    private ChessPosition[] move;
+
+    @Setup(Level.Trial)
+    public void setup() {
+      chessMatch = Fen.load(BenchmarkPositions.fen(position));
+      move = BenchmarkPositions.move(position);
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class Copies {
+    private final ChessMatch[] matches = new ChessMatch[BATCH];
+
+    @Setup(Level.Invocation)
+    public void setup(Base base) {
+      for (int i = 0; i < BATCH; i++) {
+        matches[i] = new ChessMatch(base.chessMatch);
+      }
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(BATCH)
+  public void performChessMove(Base base, Copies copies, Blackhole blackhole) {
+    for (ChessMatch match : copies.matches) {
+      blackhole.consume(match.performChessMove(base.move[0], base.move[1]));
+    }
+  }
+
+  @Benchmark
+  public ChessPiece[][] getPieces(Base base) {
+    return base.chessMatch.getPieces();
+  }
+}
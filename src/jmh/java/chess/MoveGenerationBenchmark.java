@@ -0,0 +1,57 @@
+package chess;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+//possibleMoves() de todas as pecas de um tipo (das duas cores) na posicao.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoveGenerationBenchmark {
+  @Param({"middlegame", "endgame"})
+  public String position;
+
+  @Param({"PAWN", "KNIGHT", "BISHOP", "ROOK", "QUEEN", "KING"})
+  public PieceType type;
+
+  private ChessMatch chessMatch;
+  private ChessPiece[] pieces;
+
+  @Setup
+  public void setup() {
+    chessMatch = Fen.load(BenchmarkPositions.fen(position));
+    List<ChessPiece> list = new ArrayList<>();
+    for (ChessPiece[] row : chessMatch.getPieces()) {
+      for (ChessPiece p : row) {
+        if (p != null && p.getType() == type) {
+          list.add(p);
+        }
+      }
+    }
+    pieces = list.toArray(new ChessPiece[0]);
+  }
+
+  @Benchmark
+  public void possibleMoves(Blackhole bh) {
+    for (ChessPiece p : pieces) {
+      bh.consume(p.possibleMoves());
+    }
+  }
+}
@@ -0,0 +1,31 @@
+package application;
+
+import chess.engine.BitbaseGenerator;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/*
+  BitbaseBuilder
+    Gera as bitbases KQK, KRK e KPK usando todos os nucleos e grava o arquivo
+      que chess.engine.Bitbases mapeia em memoria.
+    Uso: java application.BitbaseBuilder [arquivo de saida (padrao bitbases.bin)]
+ */
+public class BitbaseBuilder {
+  public static void main(String[] args) throws IOException {
+    Path file = Paths.get(args.length > 0 ? args[0] : "bitbases.bin");
+    long start = System.currentTimeMillis();
+    byte[][] tables = BitbaseGenerator.generateAll();
+    BitbaseGenerator.write(file, tables);
+    for (int i = 0; i < tables.length; i++) {
+      long wins = 0;
+      for (byte b : tables[i]) {
+        wins += Integer.bitCount(b & 0xFF);
+      }
+      System.out.printf("K%sK: %d winning positions%n", "QRP".charAt(i), wins);
+    }
+    System.out.printf("%s written in %d ms using %d threads%n",
+        file, System.currentTimeMillis() - start, Runtime.getRuntime().availableProcessors());
+  }
+}
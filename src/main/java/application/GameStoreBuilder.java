@@ -0,0 +1,53 @@
+package application;
+
+import chess.GameStore;
+import chess.GameStoreWriter;
+import chess.PgnReader;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/*
+  GameStoreBuilder
+    Converte um arquivo PGN para o formato binario do GameStore e depois reproduz
+      todas as partidas do arquivo gerado, comparando tamanho e vazao com o PGN.
+    Uso: java application.GameStoreBuilder arquivo.pgn [arquivo de saida (padrao arquivo.games)]
+ */
+public class GameStoreBuilder {
+  public static void main(String[] args) throws IOException {
+    if (args.length < 1) {
+      System.out.println("Usage: java application.GameStoreBuilder <file.pgn> [file.games]");
+      return;
+    }
+    Path pgn = Paths.get(args[0]);
+    Path out = Paths.get(args.length > 1 ? args[1] : args[0].replaceFirst("\\.pgn$", "") + ".games");
+
+    long start = System.nanoTime();
+    try (PgnReader reader = PgnReader.open(pgn); GameStoreWriter writer = GameStoreWriter.create(out)) {
+      while (reader.hasNext()) {
+        writer.add(reader.next());
+      }
+      double seconds = (System.nanoTime() - start) / 1e9;
+      System.out.printf("%d games converted in %.2f s (%.0f games/s)%n", writer.size(), seconds, writer.size() / seconds);
+      if (reader.skipped() > 0) {
+        System.out.println("Skipped " + reader.skipped() + " games; last error: " + reader.lastError());
+      }
+    }
+    long pgnSize = Files.size(pgn);
+    long storeSize = Files.size(out);
+    System.out.printf("%s: %d bytes, %s: %d bytes (%.1fx smaller)%n", pgn, pgnSize, out, storeSize, (double) pgnSize / storeSize);
+
+    GameStore store = GameStore.open(out);
+    long moves = 0;
+    start = System.nanoTime();
+    for (int i = 0; i < store.size(); i++) {
+      store.replay(i);
+      moves += store.plies(i);
+    }
+    double seconds = (System.nanoTime() - start) / 1e9;
+    System.out.printf("%d games, %d moves replayed in %.2f s (%.0f games/s, %.0f moves/s)%n",
+        store.size(), moves, seconds, store.size() / seconds, moves / seconds);
+  }
+}
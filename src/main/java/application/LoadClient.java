@@ -0,0 +1,94 @@
+package application;
+
+import chess.server.LatencyHistogram;
+import chess.server.LineSocket;
+import chess.server.ServerThreads;
+
+import java.io.IOException;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+  LoadClient
+    Simula jogadores contra o GameServer: cada conexao (uma thread, virtual quando
+      possivel) pede os movimentos legais, joga um sorteado e repete, comecando uma
+      nova partida no mate, sem movimentos ou depois de MAX_PLIES lances.
+    No fim mostra partidas, lances por segundo e os percentis do tempo de ida e volta
+      do comando move, medido no cliente (rede + servidor).
+    Uso: java application.LoadClient [host] [porta] [conexoes] [segundos]
+ */
+public class LoadClient {
+  private static final int MAX_PLIES = 200;
+
+  private static final LatencyHistogram roundTrip = new LatencyHistogram();
+  private static final AtomicLong games = new AtomicLong();
+  private static final AtomicLong errors = new AtomicLong();
+
+  public static void main(String[] args) throws InterruptedException {
+    String host = args.length > 0 ? args[0] : "localhost";
+    int port = args.length > 1 ? Integer.parseInt(args[1]) : 7070;
+    int connections = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+    int seconds = args.length > 3 ? Integer.parseInt(args[3]) : 30;
+
+    long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+    CountDownLatch done = new CountDownLatch(connections);
+    ThreadFactory threads = ServerThreads.factory("load-client");
+    for (int i = 0; i < connections; i++) {
+      long seed = i;
+      threads.newThread(() -> {
+        try {
+          play(host, port, deadline, new SplittableRandom(seed));
+        } catch (IOException e) {
+          errors.incrementAndGet();
+        } finally {
+          done.countDown();
+        }
+      }).start();
+    }
+    done.await();
+
+    System.out.printf("%d connections, %d games, %d moves in %d s (%.0f moves/s), %d errors%n", connections, games.get(),
+        roundTrip.count(), seconds, (double) roundTrip.count() / seconds, errors.get());
+    System.out.println("Move round trip: " + roundTrip);
+  }
+
+  private static void play(String host, int port, long deadline, SplittableRandom random) throws IOException {
+    try (LineSocket server = LineSocket.connect(host, port)) {
+      int plies = 0;
+      while (System.nanoTime() < deadline) {
+        String[] moves = request(server, "moves").split(" ");
+        if (moves.length == 1 || plies >= MAX_PLIES) {
+          request(server, "new");
+          games.incrementAndGet();
+          plies = 0;
+          continue;
+        }
+        long start = System.nanoTime();
+        String response = request(server, "move " + moves[1 + random.nextInt(moves.length - 1)]);
+        roundTrip.record(System.nanoTime() - start);
+        plies++;
+        if (response.endsWith("checkmate")) {
+          request(server, "new");
+          games.incrementAndGet();
+          plies = 0;
+        }
+      }
+      request(server, "quit");
+    }
+  }
+
+  //Envia o comando e espera a resposta; "error" conta como erro do teste.
+  private static String request(LineSocket server, String command) throws IOException {
+    server.writeLine(command);
+    String response = server.readLine();
+    if (response == null) {
+      throw new IOException("Connection closed by server");
+    }
+    if (response.startsWith("error")) {
+      errors.incrementAndGet();
+    }
+    return response;
+  }
+}
@@ -0,0 +1,49 @@
+package application;
+
+import chess.Fen;
+import chess.Perft;
+
+/*
+  PerftSuite
+    Roda a perft nas posicoes de referencia e compara com os totais conhecidos.
+    Uso: java application.PerftSuite [profundidade maxima] [bitboard]
+      Com "bitboard" a contagem usa BitPosition/MoveGenerator em vez de ChessMatch.
+    Termina com codigo 1 se algum total nao bater.
+ */
+public class PerftSuite {
+  private record Case(String name, String fen, long... nodes) {
+  }
+
+  private static final Case[] CASES = {
+      new Case("Start position", Fen.START_POSITION, 20, 400, 8902, 197281, 4865609),
+      new Case("Kiwipete", "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1", 48, 2039, 97862, 4085603),
+      new Case("Position 3", "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1", 14, 191, 2812, 43238, 674624),
+      new Case("Position 4", "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1", 6, 264, 9467, 422333),
+      new Case("Position 5", "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8", 44, 1486, 62379, 2103487),
+      new Case("Position 6", "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10", 46, 2079, 89890, 3894594),
+  };
+
+  public static void main(String[] args) {
+    int maxDepth = args.length > 0 ? Integer.parseInt(args[0]) : 3;
+    boolean bitboard = args.length > 1 && args[1].equals("bitboard");
+    boolean ok = true;
+
+    for (Case c : CASES) {
+      for (int depth = 1; depth <= Math.min(maxDepth, c.nodes().length); depth++) {
+        long start = System.nanoTime();
+        long nodes = bitboard
+            ? Perft.perft(Fen.load(c.fen()).toBitPosition(), depth)
+            : Perft.parallelPerft(Fen.load(c.fen()), depth);
+        long elapsed = Math.max(1, System.nanoTime() - start);
+        long expected = c.nodes()[depth - 1];
+        ok &= nodes == expected;
+        System.out.printf("%-15s depth %d: %10d nodes (expected %10d) %12d nps  %s%n",
+            c.name(), depth, nodes, expected, nodes * 1_000_000_000L / elapsed, nodes == expected ? "OK" : "FAIL");
+      }
+    }
+
+    if (!ok) {
+      System.exit(1);
+    }
+  }
+}
@@ -0,0 +1,45 @@
+package application;
+
+import chess.PgnGame;
+import chess.PgnReader;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.TreeMap;
+
+/*
+  PgnReplay
+    Le um arquivo PGN inteiro com o PgnReader, reproduzindo todos os lances, e mostra
+      quantas partidas e lances foram lidos, a vazao e a contagem dos resultados.
+    Uso: java application.PgnReplay arquivo.pgn
+ */
+public class PgnReplay {
+  public static void main(String[] args) throws IOException {
+    if (args.length < 1) {
+      System.out.println("Usage: java application.PgnReplay <file.pgn>");
+      return;
+    }
+    Path file = Paths.get(args[0]);
+    Map<String, Long> results = new TreeMap<>();
+    long games = 0;
+    long moves = 0;
+    long start = System.nanoTime();
+    try (PgnReader reader = PgnReader.open(file)) {
+      while (reader.hasNext()) {
+        PgnGame game = reader.next();
+        games++;
+        moves += game.moves().length;
+        results.merge(game.result(), 1L, Long::sum);
+      }
+      double seconds = (System.nanoTime() - start) / 1e9;
+      System.out.printf("%d games, %d moves in %.2f s (%.0f games/s, %.0f moves/s)%n",
+          games, moves, seconds, games / seconds, moves / seconds);
+      System.out.println("Results: " + results);
+      if (reader.skipped() > 0) {
+        System.out.println("Skipped " + reader.skipped() + " games; last error: " + reader.lastError());
+      }
+    }
+  }
+}
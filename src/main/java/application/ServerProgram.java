@@ -0,0 +1,35 @@
+package application;
+
+import chess.server.GameServer;
+import chess.server.ServerThreads;
+
+import java.io.IOException;
+
+/*
+  ServerProgram
+    Sobe o GameServer e mostra a cada 10 s as conexoes abertas, as partidas, os
+      lances por segundo e os percentis de latencia dos lances no servidor.
+    Uso: java application.ServerProgram [porta (padrao 7070)]
+    Com Java 21 ou mais novo cada conexao usa uma thread virtual; para dezenas de
+      milhares de conexoes aumente o limite de arquivos abertos (ulimit -n).
+ */
+public class ServerProgram {
+  private static final long REPORT_MILLIS = 10_000;
+
+  public static void main(String[] args) throws IOException, InterruptedException {
+    int port = args.length > 0 ? Integer.parseInt(args[0]) : 7070;
+    try (GameServer server = new GameServer(port)) {
+      server.start();
+      System.out.printf("Listening on port %d (%s threads)%n", server.port(),
+          ServerThreads.virtualAvailable() ? "virtual" : "platform");
+      long lastMoves = 0;
+      while (true) {
+        Thread.sleep(REPORT_MILLIS);
+        long moves = server.latency().count();
+        System.out.printf("%d connections, %d matches, %.0f moves/s, latency %s%n", server.connections(),
+            server.matches(), (moves - lastMoves) * 1000.0 / REPORT_MILLIS, server.latency());
+        lastMoves = moves;
+      }
+    }
+  }
+}
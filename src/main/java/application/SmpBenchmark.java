@@ -0,0 +1,50 @@
+package application;
+
+import chess.Fen;
+import chess.engine.ParallelSearch;
+import chess.engine.SearchResult;
+import chess.engine.TranspositionTable;
+
+/*
+  SmpBenchmark
+    Mede a busca paralela com 1, 2, 4, ... threads ate o numero de processadores:
+      tempo ate a profundidade (time-to-depth), nos por segundo e o ganho sobre 1 thread.
+    Uso: java application.SmpBenchmark [profundidade] [threads maximas] [hash em MB]
+    Cada rodada comeca com uma tabela de transposicao vazia, depois de uma busca de aquecimento.
+ */
+public class SmpBenchmark {
+  private static final String[] POSITIONS = {
+      Fen.START_POSITION,
+      "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+      "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10",
+  };
+
+  public static void main(String[] args) {
+    int depth = args.length > 0 ? Integer.parseInt(args[0]) : 7;
+    int maxThreads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+    long hash = args.length > 2 ? Long.parseLong(args[2]) : 64;
+
+    //Aquecimento do JIT, para que a primeira rodada nao saia prejudicada.
+    try (ParallelSearch warmup = new ParallelSearch(new TranspositionTable(hash), 1)) {
+      warmup.search(Fen.load(POSITIONS[1]), depth);
+    }
+
+    long baseTime = 0;
+    for (int threads = 1; threads <= maxThreads; threads = threads < maxThreads ? Math.min(threads * 2, maxThreads) : threads + 1) {
+      long time = 0;
+      long nodes = 0;
+      try (ParallelSearch search = new ParallelSearch(new TranspositionTable(hash), threads)) {
+        for (String fen : POSITIONS) {
+          SearchResult r = search.search(Fen.load(fen), depth);
+          time += r.timeMillis();
+          nodes += r.nodes();
+        }
+      }
+      if (threads == 1) {
+        baseTime = time;
+      }
+      System.out.printf("%3d threads: depth %d in %7d ms %12d nodes %10d nps  speedup %.2f%n",
+          threads, depth, time, nodes, nodes * 1000 / Math.max(1, time), (double) baseTime / Math.max(1, time));
+    }
+  }
+}
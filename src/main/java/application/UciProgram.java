@@ -0,0 +1,359 @@
+package application;
+
+import chess.ChessException;
+import chess.ChessMatch;
+import chess.Color;
+import chess.Fen;
+import chess.bitboard.BitPosition;
+import chess.bitboard.Move;
+import chess.engine.Bitbases;
+import chess.engine.OpeningBook;
+import chess.engine.PolyglotKey;
+import chess.engine.SearchController;
+import chess.engine.SearchLimits;
+import chess.engine.SearchResult;
+import chess.engine.TranspositionTable;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/*
+  UciProgram
+    Interface UCI (Universal Chess Interface) para GUIs e torneios, no lugar do
+      tabuleiro interativo do Program: so texto, sem cores nem limpar a tela.
+    Comandos: uci, isready, setoption (Hash, Threads, Ponder, OwnBook, BookFile, BitbaseFile),
+      ucinewgame, position startpos|fen ... [moves ...], go (depth, nodes, movetime,
+      wtime/btime/winc/binc/movestogo, infinite, ponder), stop, ponderhit e quit.
+    Livro: com OwnBook ligado, o BookFile (Polyglot .bin) responde as posicoes do livro
+      sem buscar. A tabela Random64 vem do classpath (PolyglotKey.RESOURCE) ou, se nao
+      estiver la, do arquivo polyglot-random64.txt na pasta do livro.
+    A busca recebe as chaves das posicoes da partida desde o ultimo lance irreversivel,
+      entao uma repeticao com lances ja jogados conta como empate.
+
+    Threads
+      A thread principal so le e interpreta a entrada, entao stop, isready e ponderhit
+        sao atendidos enquanto a busca roda na thread do SearchController.
+      Toda a saida passa por uma fila e uma thread propria: a busca nunca espera a
+        GUI ler o stdout. Outra thread espera o fim de cada busca para enviar o bestmove.
+    Uso: java application.UciProgram
+ */
+public class UciProgram {
+  private static final String NAME = "chess-system";
+  private static final String AUTHOR = "Phyllipesa";
+  private static final int DEFAULT_HASH = 64;
+  //Marca o fim da saida; nao e uma linha valida do protocolo.
+  private static final String END = "\0";
+
+  private final BlockingQueue<String> output = new LinkedBlockingQueue<>();
+  private final ExecutorService bestMoveWaiter = Executors.newSingleThreadExecutor(r -> {
+    Thread t = new Thread(r, "uci-bestmove");
+    t.setDaemon(true);
+    return t;
+  });
+
+  private static final String RANDOM64_FILE = "polyglot-random64.txt";
+
+  private long hash = DEFAULT_HASH;
+  private int threads = 1;
+  private boolean ownBook;
+  private OpeningBook book;
+  private Bitbases bitbases;
+  private TranspositionTable table;
+  private SearchController controller;
+  private Future<?> search;
+  private ChessMatch match = new ChessMatch();
+  //Chaves Zobrist das posicoes antes de cada lance de "position", desde o ultimo irreversivel.
+  private long[] history = new long[0];
+  private int historySize;
+
+  public static void main(String[] args) throws IOException, InterruptedException {
+    new UciProgram().run();
+  }
+
+  private void run() throws IOException, InterruptedException {
+    Thread writer = new Thread(this::writeOutput, "uci-output");
+    writer.start();
+    newController();
+    BufferedReader in = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+    String line;
+    while ((line = in.readLine()) != null) {
+      if (line.isBlank()) {
+        continue;
+      }
+      String[] tokens = line.trim().split("\\s+");
+      if (tokens[0].equals("quit")) {
+        break;
+      }
+      try {
+        execute(tokens, line.trim());
+      } catch (ChessException | IllegalArgumentException | IllegalStateException | IndexOutOfBoundsException e) {
+        send("info string " + e.getMessage());
+      }
+    }
+    controller.close();
+    output.put(END);
+    writer.join();
+  }
+
+  private void execute(String[] tokens, String line) throws InterruptedException {
+    switch (tokens[0]) {
+      case "uci" -> {
+        send("id name " + NAME);
+        send("id author " + AUTHOR);
+        send("option name Hash type spin default " + DEFAULT_HASH + " min 1 max 65536");
+        send("option name Threads type spin default 1 min 1 max " + Runtime.getRuntime().availableProcessors() * 4);
+        send("option name Ponder type check default false");
+        send("option name OwnBook type check default false");
+        send("option name BookFile type string default <empty>");
+        send("option name BitbaseFile type string default <empty>");
+        send("uciok");
+      }
+      case "isready" -> send("readyok");
+      case "setoption" -> setOption(line);
+      case "ucinewgame" -> {
+        awaitSearch();
+        table.clear();
+        match = new ChessMatch();
+        historySize = 0;
+      }
+      case "position" -> position(tokens);
+      case "go" -> go(tokens);
+      case "stop" -> controller.stop();
+      case "ponderhit" -> controller.ponderHit();
+      default -> send("info string Unknown command: " + tokens[0]);
+    }
+  }
+
+  //setoption name <nome> [value <valor>]; o nome pode ter espacos.
+  private void setOption(String line) throws InterruptedException {
+    int nameAt = line.indexOf(" name ");
+    int valueAt = line.indexOf(" value ");
+    if (nameAt < 0) {
+      return;
+    }
+    String name = (valueAt < 0 ? line.substring(nameAt + 6) : line.substring(nameAt + 6, valueAt)).trim();
+    String value = valueAt < 0 ? "" : line.substring(valueAt + 7).trim();
+    switch (name.toLowerCase()) {
+      case "hash" -> {
+        hash = Math.max(1, Long.parseLong(value));
+        newController();
+      }
+      case "threads" -> {
+        threads = Math.max(1, Integer.parseInt(value));
+        newController();
+      }
+      case "ownbook" -> {
+        ownBook = value.equalsIgnoreCase("true");
+        controller.setBook(ownBook ? book : null);
+      }
+      case "bookfile" -> {
+        book = null;
+        if (!value.isEmpty() && !value.equals("<empty>")) {
+          try {
+            Path file = Paths.get(value);
+            book = new OpeningBook(file, polyglotKey(file));
+          } catch (IOException | IllegalArgumentException e) {
+            send("info string Could not load book: " + e.getMessage());
+          }
+        }
+        controller.setBook(ownBook ? book : null);
+      }
+      case "bitbasefile" -> {
+        bitbases = null;
+        if (!value.isEmpty() && !value.equals("<empty>")) {
+          try {
+            bitbases = Bitbases.load(Paths.get(value));
+          } catch (IOException e) {
+            send("info string Could not load bitbases: " + e.getMessage());
+          }
+        }
+        controller.setBitbases(bitbases);
+      }
+      case "ponder" -> {
+        //A GUI so avisa que pode mandar "go ponder"; nada a configurar.
+      }
+      default -> send("info string Unknown option: " + name);
+    }
+  }
+
+  //Tabela Random64 do classpath ou, na falta dela, ao lado do livro.
+  private static PolyglotKey polyglotKey(Path book) throws IOException {
+    Path beside = book.toAbsolutePath().resolveSibling(RANDOM64_FILE);
+    try {
+      return PolyglotKey.fromClasspath();
+    } catch (IOException e) {
+      if (!Files.exists(beside)) {
+        throw e;
+      }
+      return PolyglotKey.load(beside);
+    }
+  }
+
+  //position startpos|fen <fen> [moves <lance> ...]
+  private void position(String[] tokens) {
+    int i = 1;
+    ChessMatch next;
+    if (tokens.length > 1 && tokens[1].equals("fen")) {
+      StringBuilder fen = new StringBuilder();
+      for (i = 2; i < tokens.length && !tokens[i].equals("moves"); i++) {
+        fen.append(tokens[i]).append(' ');
+      }
+      next = Fen.load(fen.toString());
+    } else {
+      next = new ChessMatch();
+      i = 2;
+    }
+    long[] keys = new long[Math.max(0, tokens.length - i)];
+    int size = 0;
+    if (i < tokens.length && tokens[i].equals("moves")) {
+      for (i++; i < tokens.length; i++) {
+        int move = Move.parse(tokens[i]);
+        if (move == Move.NONE || next.getCheckMate()) {
+          throw new ChessException("Illegal move: " + tokens[i]);
+        }
+        keys[size++] = next.getZobristKey();
+        try {
+          next.performChessMove(move);
+        } catch (ChessException e) {
+          throw new ChessException("Illegal move: " + tokens[i] + " (" + e.getMessage() + ")");
+        }
+        if (next.getHalfmoveClock() == 0) {
+          size = 0;
+        }
+      }
+    }
+    match = next;
+    history = keys;
+    historySize = size;
+  }
+
+  private void go(String[] tokens) throws InterruptedException {
+    awaitSearch();
+    long[] clock = new long[4];
+    int movesToGo = 0;
+    int depth = 0;
+    long nodes = 0;
+    long moveTime = 0;
+    boolean infinite = false;
+    boolean ponder = false;
+    for (int i = 1; i < tokens.length; i++) {
+      switch (tokens[i]) {
+        case "wtime" -> clock[0] = Long.parseLong(tokens[++i]);
+        case "btime" -> clock[1] = Long.parseLong(tokens[++i]);
+        case "winc" -> clock[2] = Long.parseLong(tokens[++i]);
+        case "binc" -> clock[3] = Long.parseLong(tokens[++i]);
+        case "movestogo" -> movesToGo = Integer.parseInt(tokens[++i]);
+        case "depth" -> depth = Integer.parseInt(tokens[++i]);
+        case "nodes" -> nodes = Long.parseLong(tokens[++i]);
+        case "movetime" -> moveTime = Long.parseLong(tokens[++i]);
+        case "infinite" -> infinite = true;
+        case "ponder" -> ponder = true;
+        default -> {
+          //searchmoves, mate e os lances de searchmoves nao sao suportados.
+        }
+      }
+    }
+
+    boolean white = match.getCurrentPlayer() == Color.WHITE;
+    long remaining = white ? clock[0] : clock[1];
+    SearchLimits limits;
+    if (infinite) {
+      limits = SearchLimits.unlimited();
+    } else if (moveTime > 0) {
+      limits = SearchLimits.moveTime(moveTime);
+    } else if (remaining > 0) {
+      limits = SearchLimits.clock(remaining, white ? clock[2] : clock[3], movesToGo);
+    } else if (depth > 0 || nodes > 0) {
+      limits = new SearchLimits(0, 0, 0, 0, false);
+    } else {
+      limits = SearchLimits.unlimited();
+    }
+    limits = limits.withDepth(depth).withNodes(nodes);
+
+    if (match.getCheckMate()) {
+      send("bestmove 0000");
+      return;
+    }
+    BitPosition root = match.toBitPosition();
+    root.setHistory(history, historySize);
+    Future<SearchResult> result = controller.start(root, limits, ponder);
+    search = bestMoveWaiter.submit(() -> sendBestMove(result));
+  }
+
+  private void sendBestMove(Future<SearchResult> result) {
+    try {
+      SearchResult r = result.get();
+      if (r.move() == Move.NONE) {
+        send("bestmove 0000");
+      } else if (r.pv().length > 1) {
+        send("bestmove " + Move.toString(r.move()) + " ponder " + Move.toString(r.pv()[1]));
+      } else {
+        send("bestmove " + Move.toString(r.move()));
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (ExecutionException e) {
+      send("info string Search failed: " + e.getCause());
+      send("bestmove 0000");
+    }
+  }
+
+  //Um novo go (ou uma mudanca de configuracao) durante a busca interrompe a anterior.
+  private void awaitSearch() throws InterruptedException {
+    if (search == null) {
+      return;
+    }
+    controller.stop();
+    try {
+      search.get();
+    } catch (ExecutionException e) {
+      send("info string Search failed: " + e.getCause());
+    }
+    search = null;
+  }
+
+  private void newController() throws InterruptedException {
+    awaitSearch();
+    if (controller != null) {
+      controller.close();
+    }
+    table = new TranspositionTable(hash);
+    controller = new SearchController(table, threads);
+    controller.setBook(ownBook ? book : null);
+    controller.setBitbases(bitbases);
+    controller.setListener(r -> send("info " + r));
+  }
+
+  private void send(String line) {
+    output.add(line);
+  }
+
+  private void writeOutput() {
+    try {
+      while (true) {
+        String line = output.take();
+        if (line.equals(END)) {
+          break;
+        }
+        System.out.println(line);
+        if (output.isEmpty()) {
+          System.out.flush();
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    System.out.flush();
+  }
+}
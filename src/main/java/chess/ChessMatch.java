@@ -1,29 +1,84 @@
 package chess;
 
-import boardgame.Board;
 import boardgame.Piece;
 import boardgame.Position;
+import chess.bitboard.BitBoard;
+import chess.bitboard.BitPosition;
+import chess.bitboard.Bitboards;
+import chess.bitboard.Move;
+import chess.bitboard.MoveGenerator;
+import chess.bitboard.MoveList;
+import chess.bitboard.Zobrist;
 import chess.pieces.*;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 public class ChessMatch {
   private int turn;
+  //Lances desde a ultima captura ou movimento de peao (regra dos 50 lances).
+  private int halfmoveClock;
   private Color currentPlayer;
-  private Board board;
+  private BitBoard board;
   private boolean check;
   private boolean checkMate;
   private ChessPiece enPassantVulnerable;
   private ChessPiece promoted;
-  private List<Piece> piecesOnTheBoard = new ArrayList<>();
+  private int castlingRights;
+  //Parte da chave Zobrist que nao depende das pecas: lado, roque e en passant.
+  private long stateKey;
+  private long enPassantKey;
+  private PieceIndex piecesOnTheBoard = new PieceIndex();
   private List<Piece> capturedPieces = new ArrayList<>();
+  private BitPosition legalMovesPosition;
+  //Movimentos do jogador da vez, calculados uma vez por posicao (ver cacheMoves).
+  //  Alocados na primeira consulta: partidas so carregadas (ex: Fen em lote) nao pagam por eles.
+  private MoveList cachedMoves;
+  private long[] pseudoTargets;
+  private long[] legalTargets;
+  private long cachedKey;
+  private boolean cached;
+
+  private static final PieceType[] PIECE_TYPES = PieceType.values();
+  private static final PieceType[] PROMOTIONS = {PieceType.QUEEN, PieceType.ROOK, PieceType.BISHOP, PieceType.KNIGHT};
 
   public ChessMatch() {
-    board = new Board(8, 8);
-    turn = 1;
-    currentPlayer = Color.WHITE;
+    this(Color.WHITE, 1, 0);
     initialSetup();
+    setupComplete(null);
+  }
+
+  //Partida com o tabuleiro vazio, para quem monta a posicao peca a peca (ex: Fen).
+  ChessMatch(Color currentPlayer, int turn, int halfmoveClock) {
+    board = new BitBoard();
+    this.turn = turn;
+    this.currentPlayer = currentPlayer;
+    this.halfmoveClock = halfmoveClock;
+  }
+
+  //Copia independente da partida: novas pecas, com os mesmos contadores de movimento, em um novo tabuleiro.
+  ChessMatch(ChessMatch other) {
+    this(other.currentPlayer, other.turn, other.halfmoveClock);
+    ChessPiece enPassant = null;
+    for (int i = 0; i < board.getRows(); i++) {
+      for (int j = 0; j < board.getColumns(); j++) {
+        ChessPiece p = (ChessPiece) other.board.piece(i, j);
+        if (p != null) {
+          ChessPiece copy = newPiece(p.getType(), p.getColor());
+          for (int k = 0; k < p.getMoveCount(); k++) {
+            copy.increaseMoveCount();
+          }
+          board.placePiece(copy, new Position(i, j));
+          piecesOnTheBoard.add(copy);
+          if (p == other.enPassantVulnerable) {
+            enPassant = copy;
+          }
+        }
+      }
+    }
+    checkMate = other.checkMate;
+    setupComplete(enPassant);
   }
 
   public int getTurn() {
@@ -34,6 +89,15 @@ public class ChessMatch {
     return currentPlayer;
   }
 
+  public int getHalfmoveClock() {
+    return halfmoveClock;
+  }
+
+  //Direitos de roque atuais (bits de Zobrist: WHITE_KINGSIDE, WHITE_QUEENSIDE, ...).
+  public int getCastlingRights() {
+    return castlingRights;
+  }
+
   public boolean getCheck() {
     return check;
   }
@@ -50,6 +114,73 @@ public class ChessMatch {
     return promoted;
   }
 
+  //Identificador de 64 bits da posicao atual, mantido a cada movimento.
+  public long getZobristKey() {
+    return board.getKey() ^ stateKey;
+  }
+
+  //Chave so dos peoes, mantida pelo tabuleiro em todo placePiece/removePiece (capturas, en passant, promocao).
+  public long getPawnKey() {
+    return board.getPawnKey();
+  }
+
+  //Copia compacta da posicao atual, usada pelo gerador de movimentos e pela busca.
+  public BitPosition toBitPosition() {
+    BitPosition position = new BitPosition();
+    position.set(board, currentPlayer, castlingRights, enPassantSquare(), halfmoveClock);
+    return position;
+  }
+
+  /*
+    legalMoves
+      Escreve os movimentos legais do jogador da vez no buffer informado, como ints
+        compactados (ver chess.bitboard.Move). Depois da primeira chamada nao aloca memoria.
+   */
+  public void legalMoves(MoveList moves) {
+    cacheMoves();
+    moves.clear();
+    for (int i = 0; i < cachedMoves.size(); i++) {
+      moves.add(cachedMoves.get(i));
+    }
+  }
+
+  /*
+    cacheMoves
+      Gera os movimentos do jogador da vez uma unica vez por posicao: a mesma geracao
+        responde o destaque de possibleMoves, as validacoes e o performChessMove.
+      Guarda, por casa de origem, os destinos pseudo-legais (o que as pecas mostram)
+        e os legais (que nao deixam o proprio rei em check).
+      O cache e identificado pela chave Zobrist: qualquer movimento muda a chave e o
+        undo volta para ela, entao nao ha o que invalidar a mao.
+   */
+  private void cacheMoves() {
+    long key = getZobristKey();
+    if (cached && cachedKey == key) {
+      return;
+    }
+    if (legalMovesPosition == null) {
+      legalMovesPosition = new BitPosition();
+      cachedMoves = new MoveList();
+      pseudoTargets = new long[64];
+      legalTargets = new long[64];
+    }
+    legalMovesPosition.set(board, currentPlayer, castlingRights, enPassantSquare(), halfmoveClock);
+    MoveGenerator.generate(legalMovesPosition, cachedMoves, false);
+    Arrays.fill(pseudoTargets, 0L);
+    Arrays.fill(legalTargets, 0L);
+    for (int i = 0; i < cachedMoves.size(); i++) {
+      int move = cachedMoves.get(i);
+      pseudoTargets[Move.from(move)] |= Bitboards.bit(Move.to(move));
+    }
+    MoveGenerator.filterLegal(legalMovesPosition, cachedMoves);
+    for (int i = 0; i < cachedMoves.size(); i++) {
+      int move = cachedMoves.get(i);
+      legalTargets[Move.from(move)] |= Bitboards.bit(Move.to(move));
+    }
+    cachedKey = key;
+    cached = true;
+  }
+
   public ChessPiece[][] getPieces() {
     ChessPiece[][] mat = new ChessPiece[board.getRows()][board.getColumns()];
     for (int i = 0; i < board.getRows(); i++) {
@@ -62,53 +193,73 @@ public class ChessMatch {
   }
 
   public ChessPiece performChessMove(ChessPosition sourcePosition, ChessPosition targetPosition) {
-    Position source = sourcePosition.toPosition();
-    Position target = targetPosition.toPosition();
+    return performChessMove(sourcePosition.toPosition(), targetPosition.toPosition(), "Q");
+  }
+
+  private ChessPiece performChessMove(Position source, Position target, String promotion) {
     validateSourcePosition(source);
     validateTargetPosition(source, target);
-    Piece capturePiece = makeMove(source, target);
-
-    if (testCheck(currentPlayer)) {
-      undoMove(source, target, capturePiece);
+    if ((legalTargets[square(source)] & Bitboards.bit(square(target))) == 0) {
       throw new ChessException("You can't put yourself in check!");
     }
+    Piece capturePiece = makeMove(source, target);
 
     ChessPiece movedPiece = (ChessPiece)board.piece(target);
+    halfmoveClock = (movedPiece instanceof Pawn || capturePiece != null) ? 0 : halfmoveClock + 1;
 
     //#specialmove promotion
     promoted = null;
     if (movedPiece instanceof Pawn) {
       if ((movedPiece.getColor() == Color.WHITE && target.getRow() == 0 || movedPiece.getColor() == Color.BLACK && target.getRow() == 7)) {
         promoted = (ChessPiece) board.piece(target);
-        promoted = replacePromotedPiece("Q");
+        promoted = replacePromotedPiece(promotion);
       }
     }
 
-    check = testCheck(opponent(currentPlayer));
-
-    if(testCheckMate(opponent(currentPlayer))) {
-      checkMate = true;
-    } else {
-      nextTurn();
-    }
-
     //#specialmove en passant
+    stateKey ^= enPassantKey;
     if (movedPiece instanceof Pawn && (target.getRow() == source.getRow() -2 || target.getRow() == source.getRow() + 2)) {
       enPassantVulnerable = movedPiece;
     } else {
       enPassantVulnerable = null;
     }
+    enPassantKey = enPassantKey();
+    stateKey ^= enPassantKey;
+
+    //O mate e testado com os movimentos do adversario ja na vez dele (o cache serve ao proximo lance);
+    //  com mate a vez volta para quem deu o mate.
+    check = testCheck(opponent(currentPlayer));
+    nextTurn();
+    if (testCheckMate()) {
+      checkMate = true;
+      turn -= 2;
+      nextTurn();
+    }
 
     return (ChessPiece) capturePiece;
   }
 
+  /*
+    performChessMove
+      Executa um movimento compactado (chess.bitboard.Move), como os de legalMoves,
+        com a mesma validacao do movimento digitado. A peca da promocao e escolhida
+        antes de testar check e mate, entao uma subpromocao tambem e avaliada certo.
+   */
+  public ChessPiece performChessMove(int move) {
+    int from = Move.from(move);
+    int to = Move.to(move);
+    String promotion = Move.promotion(move) != 0 ? String.valueOf("PNBRQK".charAt(Move.promotion(move))) : "Q";
+    return performChessMove(new Position(Bitboards.row(from), Bitboards.column(from)),
+        new Position(Bitboards.row(to), Bitboards.column(to)), promotion);
+  }
+
   //Converte a posição de xadrez para uma posição de matriz normal
   //Faz a validação depois que o usuario digita a posição em que a peça esta.
   //Retorna os movimentos possiveis da peça dessa posição.
   public boolean[][] possibleMoves(ChessPosition sourcePosition) {
     Position position = sourcePosition.toPosition();
     validateSourcePosition(position);
-    return board.piece(position).possibleMoves();
+    return ((ChessPiece) board.piece(position)).toMatrix(pseudoTargets[square(position)]);
   }
 
   public ChessPiece replacePromotedPiece(String type) {
@@ -121,12 +272,8 @@ public class ChessMatch {
     }
 
     Position pos = promoted.getChessPosition().toPosition();
-    Piece p = board.removePiece(pos);
-    piecesOnTheBoard.remove(p);
-
     ChessPiece newPiece = newPiece(type, promoted.getColor());
-    board.placePiece(newPiece, pos);
-    piecesOnTheBoard.remove(p);
+    swapPiece(pos, newPiece);
 
     return newPiece;
   }
@@ -138,20 +285,31 @@ public class ChessMatch {
     return new Rook(board, color);
   }
 
+  ChessPiece newPiece(PieceType type, Color color) {
+    return switch (type) {
+      case PAWN -> new Pawn(board, color, this);
+      case KNIGHT -> new Knight(board, color);
+      case BISHOP -> new Bishop(board, color);
+      case ROOK -> new Rook(board, color);
+      case QUEEN -> new Queen(board, color);
+      case KING -> new King(board, color, this);
+    };
+  }
+
   /*
     makeMove
       Retira a peça de origem do tabuleiro
       Caso tenha uma peça na posição de destino a mesma é capturada
       Coloca na posição de destino a peça que estavana posição de origem.
    */
-  private Piece makeMove(Position source, Position target) {
+  Piece makeMove(Position source, Position target) {
     ChessPiece p = (ChessPiece) board.removePiece(source);
     p.increaseMoveCount();
     Piece capturedPiece = board.removePiece(target);
     board.placePiece(p, target);
 
     if (capturedPiece != null) {
-      piecesOnTheBoard.remove(capturedPiece);
+      piecesOnTheBoard.remove((ChessPiece) capturedPiece);
       capturedPieces.add(capturedPiece);
     }
     
@@ -184,10 +342,11 @@ public class ChessMatch {
         }
         capturedPiece = board.removePiece(pawnPosition);
         capturedPieces.add(capturedPiece);
-        piecesOnTheBoard.remove(capturedPiece);
+        piecesOnTheBoard.remove((ChessPiece) capturedPiece);
       }
     }
 
+    updateCastlingRights();
     return capturedPiece;
   }
 
@@ -197,15 +356,15 @@ public class ChessMatch {
       Devolte a peça para a posição de origem.
       Se no movimento houve a captura de uma peça, retorne a peça para o tabuleiro na posição de destino.
  */
-  private void undoMove(Position source, Position target, Piece capturedPiece) {
+  void undoMove(Position source, Position target, Piece capturedPiece) {
     ChessPiece p = (ChessPiece) board.removePiece(target);
     p.decreaseMoveCount();
     board.placePiece(p, source);
 
     if (capturedPiece != null) {
       board.placePiece(capturedPiece, target);
-      capturedPieces.remove(capturedPiece);
-      piecesOnTheBoard.add(capturedPiece);
+      capturedPieces.remove(capturedPieces.lastIndexOf(capturedPiece));
+      piecesOnTheBoard.restore((ChessPiece) capturedPiece);
     }
 
     //#specialmove castling kingside rook
@@ -227,8 +386,10 @@ public class ChessMatch {
     }
 
     //#specialmove en passant
+    //  No en passant a peca capturada e o peao vulneravel, que estava ao lado da origem (e nao no destino).
     if (p instanceof Pawn) {
-      if (source.getColumn() != target.getColumn() && capturedPiece == null) {
+      if (source.getColumn() != target.getColumn() && capturedPiece == enPassantVulnerable && capturedPiece != null
+          && source.getRow() == (p.getColor() == Color.WHITE ? 3 : 4)) {
         ChessPiece pawn = (ChessPiece)board.removePiece(target);
         Position pawnPosition;
         if (p.getColor() == Color.WHITE) {
@@ -239,6 +400,8 @@ public class ChessMatch {
         board.placePiece(pawn, pawnPosition);
       }
     }
+
+    updateCastlingRights();
   }
 
   private void validateSourcePosition(Position position) {
@@ -255,104 +418,302 @@ public class ChessMatch {
       throw new ChessException("The chosen piece is not yours");
     }
 
-    if (!board.piece(position).isThereAnyPossibleMoves()) {
+    cacheMoves();
+    if (pseudoTargets[square(position)] == 0) {
       throw new ChessException("There is no moves for the chosen piece");
     }
   }
 
   private void validateTargetPosition(Position source, Position target) {
   /*Se para a peça de origem a posição de destino não é um movimento possivel.
-    Ao construir a peça "piece(source)" o programa já sabe sua identidade
-      pois fornecemos a ele a posição de origem(source), e nela há uma peça.
-      exemplo:
-            !board.King
-
-    Agora que temos a peça, vamos acessar o metodo a SUPERCLASSE "possibleMove(target)"
-      para verificarmos os movimentos possiveis.
-      exemplo:
-            !board.King.possibleMove(target)
+    Os destinos possiveis de cada casa de origem ja estao no cache de movimentos
+      (cacheMoves), preenchido por validateSourcePosition para esta mesma posicao.
     */
-    if (!board.piece(source).possibleMove(target)) {
+    if ((pseudoTargets[square(source)] & Bitboards.bit(square(target))) == 0) {
       throw new ChessException("There chosen piece can't move to target position");
     }
   }
 
+  private static int square(Position position) {
+    return Bitboards.square(position.getRow(), position.getColumn());
+  }
+
   private void  nextTurn() {
     turn++;
     currentPlayer = (currentPlayer == Color.WHITE) ? Color.BLACK : Color.WHITE;
+    stateKey ^= Zobrist.side();
   }
 
-  //Retorna a cor do oponente
-  private Color opponent(Color color) {
-    return  (color == Color.WHITE) ? Color.BLACK : Color.WHITE;
+  /*
+    castlingRights
+      O roque continua possivel enquanto o rei e a torre do lado estiverem
+        em suas casas iniciais sem nunca terem se movido.
+   */
+  private int castlingRights() {
+    int rights = 0;
+    if (unmoved(7, 4, Color.WHITE, PieceType.KING)) {
+      if (unmoved(7, 7, Color.WHITE, PieceType.ROOK)) rights |= Zobrist.WHITE_KINGSIDE;
+      if (unmoved(7, 0, Color.WHITE, PieceType.ROOK)) rights |= Zobrist.WHITE_QUEENSIDE;
+    }
+    if (unmoved(0, 4, Color.BLACK, PieceType.KING)) {
+      if (unmoved(0, 7, Color.BLACK, PieceType.ROOK)) rights |= Zobrist.BLACK_KINGSIDE;
+      if (unmoved(0, 0, Color.BLACK, PieceType.ROOK)) rights |= Zobrist.BLACK_QUEENSIDE;
+    }
+    return rights;
   }
 
-  private ChessPiece King(Color color) {
-    List<Piece> list = piecesOnTheBoard.stream().filter(x -> ((ChessPiece)x).getColor() == color).toList();
+  private boolean unmoved(int row, int column, Color color, PieceType type) {
+    ChessPiece p = (ChessPiece) board.piece(row, column);
+    return p != null && p.getColor() == color && p.getType() == type && p.getMoveCount() == 0;
+  }
 
-    for (Piece p : list) {
-      if (p instanceof King) {
-        return (ChessPiece)p;
+  private void updateCastlingRights() {
+    int rights = castlingRights();
+    if (rights != castlingRights) {
+      stateKey ^= Zobrist.castling(castlingRights) ^ Zobrist.castling(rights);
+      castlingRights = rights;
+    }
+  }
+
+  //Casa por onde o peao vulneravel passou (indice de bitboard) ou -1.
+  int enPassantSquare() {
+    if (enPassantVulnerable == null) {
+      return -1;
+    }
+    Position pos = enPassantVulnerable.getChessPosition().toPosition();
+    int row = (enPassantVulnerable.getColor() == Color.WHITE) ? pos.getRow() + 1 : pos.getRow() - 1;
+    return row * 8 + pos.getColumn();
+  }
+
+  //A coluna de en passant so entra na chave se algum peao do jogador da vez puder fazer a captura.
+  private long enPassantKey() {
+    if (enPassantVulnerable == null) {
+      return 0L;
+    }
+    Position pos = enPassantVulnerable.getChessPosition().toPosition();
+    for (int dc = -1; dc <= 1; dc += 2) {
+      int column = pos.getColumn() + dc;
+      if (board.positionExists(pos.getRow(), column)) {
+        ChessPiece p = (ChessPiece) board.piece(pos.getRow(), column);
+        if (p instanceof Pawn && p.getColor() != enPassantVulnerable.getColor()) {
+          return Zobrist.enPassant(pos.getColumn());
+        }
       }
     }
-    throw new IllegalStateException("There is no " + color + " King on the board");
+    return 0L;
+  }
+
+  //Retorna a cor do oponente
+  private Color opponent(Color color) {
+    return  (color == Color.WHITE) ? Color.BLACK : Color.WHITE;
   }
 
   /*
     testCheck
-      Pega a posição do King no formato de matriz.
-      Faz uma lista das peças que o oponente tem na mesa
-        Cada iteração do FOR vai pegar os movimentos possiveis da peça P.
-        Verifica se em algum dos movimentos possiveis está o rei inimigo e retorna TRUE
-        confirmando que o King esta em CHECK em relação a P.
+      Pega a casa do King da cor informada no bitboard de reis (sem rei e erro).
+      Consulta o mapa de ataques do oponente, mantido pelo BitBoard a cada
+        placePiece/removePiece, para saber se essa casa esta atacada.
   */
-  private boolean testCheck(Color color) {
-    Position KingPosition = King(color).getChessPosition().toPosition();
-    List<Piece> opponentPieces = piecesOnTheBoard.stream().filter(x -> ((ChessPiece)x).getColor() == opponent(color)).toList();
-    for (Piece p : opponentPieces) {
-      boolean[][] mat = p.possibleMoves();
-      if (mat[KingPosition.getRow()][KingPosition.getColumn()]) {
-        return true;
-      }
+  boolean testCheck(Color color) {
+    long king = board.pieces(color, PieceType.KING);
+    if (king == 0) {
+      throw new IllegalStateException("There is no " + color + " King on the board");
     }
-    return false;
+    return board.isAttacked(Bitboards.first(king), opponent(color));
   }
 
   /*
       testCheckMate
-        Verifica se a cor atual não esta em check.
+        Verifica se o jogador da vez esta em check e sem nenhum movimento legal
+          (consulta o cache de movimentos, gerado no maximo uma vez por posicao).
    */
-  private boolean testCheckMate(Color color) {
-    if (!testCheck(color)) {
+  boolean testCheckMate() {
+    if (!check) {
       return false;
     }
+    cacheMoves();
+    return cachedMoves.size() == 0;
+  }
+
+  //Descarta o cache de movimentos; usado pelos benchmarks para medir a geracao a cada chamada.
+  void clearMoveCache() {
+    cached = false;
+  }
+
+  //Peca na casa da matriz (linha 0 = fileira 8) ou null.
+  ChessPiece piece(int row, int column) {
+    return (ChessPiece) board.piece(row, column);
+  }
+
+  //Coloca a peca direto na casa da matriz, sem converter de ChessPosition (usado pela Fen).
+  void placeNewPiece(ChessPiece piece, int row, int column) {
+    board.placePiece(piece, new Position(row, column));
+    piecesOnTheBoard.add(piece);
+  }
+
+  void placeNewPiece(char column, int row, ChessPiece piece) {
+    //Coloca uma peça no tabuleiro
+    board.placePiece(piece, new ChessPosition(column, row).toPosition());
+    //Coloca essa peça na lista "piecesOnTheBoard"
+    piecesOnTheBoard.add(piece);
+  }
+
+  /*
+    setupComplete
+      Depois que todas as pecas foram colocadas calcula os direitos de roque,
+        a chave Zobrist do estado e se o jogador da vez esta em check.
+   */
+  void setupComplete(ChessPiece enPassantVulnerable) {
+    castlingRights = castlingRights();
+    stateKey = Zobrist.castling(castlingRights);
+    if (currentPlayer == Color.BLACK) {
+      stateKey ^= Zobrist.side();
+    }
+    this.enPassantVulnerable = enPassantVulnerable;
+    enPassantKey = enPassantKey();
+    stateKey ^= enPassantKey;
+    check = testCheck(currentPlayer);
+  }
+
+  //Verifica se alguma peca da cor informada ataca a posicao (consulta O(1) ao mapa de ataques).
+  public boolean isSquareAttacked(Position position, Color color) {
+    return board.isAttacked(Bitboards.square(position.getRow(), position.getColumn()), color);
+  }
 
-    List<Piece> list = piecesOnTheBoard.stream().filter(x -> ((ChessPiece)x).getColor() == color).toList();
-    for (Piece p : list) {
-      boolean[][] mat = p.possibleMoves();
-      for (int i = 0; i < board.getRows(); i++) {
-        for (int j = 0; j < board.getColumns(); j++) {
-          if (mat[i][j]) {
-            Position source = ((ChessPiece)p).getChessPosition().toPosition();
-            Position target = new Position(i, j);
-            Piece capturedPiece = makeMove(source, target);
-            boolean testCheck = testCheck(color);
-            undoMove(source, target, capturedPiece);
-            if (!testCheck) {
-              return false;
+  /*
+    perft
+      Conta as posicoes folha ate a profundidade informada passando por makeMove/undoMove,
+        incluindo roque, en passant e as quatro promocoes possiveis.
+      Nao altera o estado da partida ao final.
+   */
+  long perft(int depth) {
+    if (depth == 0) {
+      return 1;
+    }
+    long nodes = 0;
+    Color color = currentPlayer;
+    for (PieceType type : PIECE_TYPES) {
+      for (int k = 0; k < piecesOnTheBoard.count(color, type); k++) {
+        ChessPiece p = piecesOnTheBoard.get(color, type, k);
+        Position source = p.getChessPosition().toPosition();
+        boolean[][] mat = p.possibleMoves();
+        for (int i = 0; i < board.getRows(); i++) {
+          for (int j = 0; j < board.getColumns(); j++) {
+            if (mat[i][j]) {
+              nodes += perft(source, new Position(i, j), null, depth);
             }
           }
         }
       }
     }
-    return true;
+    return nodes;
   }
 
-  private void placeNewPiece(char column, int row, ChessPiece piece) {
-    //Coloca uma peça no tabuleiro
-    board.placePiece(piece, new ChessPosition(column, row).toPosition());
-    //Coloca essa peça na lista "piecesOnTheBoard"
-    piecesOnTheBoard.add(piece);
+  //Perft a partir de um unico movimento (ex: "e2e4", "e7e8q"); retorna 0 se o movimento for ilegal.
+  long perft(String move, int depth) {
+    Position source = new ChessPosition(move.charAt(0), move.charAt(1) - '0').toPosition();
+    Position target = new ChessPosition(move.charAt(2), move.charAt(3) - '0').toPosition();
+    PieceType promotion = null;
+    if (move.length() > 4) {
+      for (PieceType type : PROMOTIONS) {
+        if (newPiece(type, currentPlayer).toString().equalsIgnoreCase(move.substring(4))) {
+          promotion = type;
+        }
+      }
+    }
+    return perft(source, target, promotion, depth);
+  }
+
+  //Movimentos legais do jogador da vez no formato "e2e4" / "e7e8q".
+  List<String> legalMoves() {
+    List<String> moves = new ArrayList<>();
+    Color color = currentPlayer;
+    for (PieceType type : PIECE_TYPES) {
+      for (int k = 0; k < piecesOnTheBoard.count(color, type); k++) {
+        ChessPiece p = piecesOnTheBoard.get(color, type, k);
+        Position source = p.getChessPosition().toPosition();
+        boolean[][] mat = p.possibleMoves();
+        for (int i = 0; i < board.getRows(); i++) {
+          for (int j = 0; j < board.getColumns(); j++) {
+            if (mat[i][j]) {
+              Position target = new Position(i, j);
+              Piece capturedPiece = makeMove(source, target);
+              boolean legal = !testCheck(color);
+              undoMove(source, target, capturedPiece);
+              if (legal) {
+                String move = ChessPosition.fromPosition(source).toString() + ChessPosition.fromPosition(target);
+                if (p instanceof Pawn && (i == 0 || i == 7)) {
+                  for (PieceType promotion : PROMOTIONS) {
+                    moves.add(move + newPiece(promotion, color).toString().toLowerCase());
+                  }
+                } else {
+                  moves.add(move);
+                }
+              }
+            }
+          }
+        }
+      }
+    }
+    return moves;
+  }
+
+  private long perft(Position source, Position target, PieceType promotion, int depth) {
+    Color color = currentPlayer;
+    ChessPiece enPassant = enPassantVulnerable;
+    long epKey = enPassantKey;
+    long nodes = 0;
+    Piece capturedPiece = makeMove(source, target);
+    if (!testCheck(color)) {
+      ChessPiece p = (ChessPiece) board.piece(target);
+      if (p instanceof Pawn && (target.getRow() == 0 || target.getRow() == 7)) {
+        for (PieceType type : PROMOTIONS) {
+          if (promotion == null || promotion == type) {
+            ChessPiece pawn = swapPiece(target, newPiece(type, color));
+            nodes += perftChild(p, source, target, depth, enPassant, epKey);
+            unswapPiece(target, pawn);
+          }
+        }
+      } else {
+        nodes += perftChild(p, source, target, depth, enPassant, epKey);
+      }
+    }
+    undoMove(source, target, capturedPiece);
+    return nodes;
+  }
+
+  private long perftChild(ChessPiece movedPiece, Position source, Position target, int depth, ChessPiece enPassant, long epKey) {
+    if (depth == 1) {
+      return 1;
+    }
+    stateKey ^= enPassantKey;
+    enPassantVulnerable = (movedPiece instanceof Pawn && Math.abs(target.getRow() - source.getRow()) == 2) ? movedPiece : null;
+    enPassantKey = enPassantKey();
+    stateKey ^= enPassantKey;
+    nextTurn();
+    long nodes = perft(depth - 1);
+    turn -= 2;
+    nextTurn();
+    stateKey ^= enPassantKey ^ epKey;
+    enPassantVulnerable = enPassant;
+    enPassantKey = epKey;
+    return nodes;
+  }
+
+  //Troca a peca da posicao por outra (promocao), mantendo a lista de pecas no tabuleiro.
+  private ChessPiece swapPiece(Position position, ChessPiece newPiece) {
+    ChessPiece old = (ChessPiece) board.removePiece(position);
+    piecesOnTheBoard.remove(old);
+    board.placePiece(newPiece, position);
+    piecesOnTheBoard.add(newPiece);
+    return old;
+  }
+
+  //Desfaz o ultimo swapPiece, devolvendo a peca original ao mesmo lugar do PieceIndex.
+  private void unswapPiece(Position position, ChessPiece old) {
+    piecesOnTheBoard.remove((ChessPiece) board.removePiece(position));
+    board.placePiece(old, position);
+    piecesOnTheBoard.restore(old);
   }
 
   private void initialSetup() {
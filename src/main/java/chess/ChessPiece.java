@@ -3,10 +3,13 @@ package chess;
 import boardgame.Board;
 import boardgame.Piece;
 import boardgame.Position;
+import chess.bitboard.Bitboards;
 
 public abstract class ChessPiece extends Piece {
   private Color color;
   private int moveCount;
+  //Posicao da peca no vetor de PieceIndex do seu tipo e cor.
+  int listIndex;
 
   public ChessPiece(Board board, Color color) {
     super(board);
@@ -17,6 +20,8 @@ public abstract class ChessPiece extends Piece {
     return color;
   }
 
+  public abstract PieceType getType();
+
   public int getMoveCount() {
     return moveCount;
   }
@@ -34,6 +39,21 @@ public abstract class ChessPiece extends Piece {
     return ChessPosition.fromPosition(position);
   }
 
+  //Casa da peca no indice de bitboard (row * 8 + column).
+  protected int square() {
+    return Bitboards.square(position.getRow(), position.getColumn());
+  }
+
+  //Converte um bitboard com as casas de destino na matriz retornada por possibleMoves.
+  protected boolean[][] toMatrix(long targets) {
+    boolean[][] mat = new boolean[8][8];
+    for (; targets != 0; targets &= targets - 1) {
+      int s = Bitboards.first(targets);
+      mat[Bitboards.row(s)][Bitboards.column(s)] = true;
+    }
+    return mat;
+  }
+
   protected boolean isThereOpponentPiece(Position position) {
     ChessPiece p = (ChessPiece) getBoard().piece(position);
     return p != null && p.getColor() != color;
@@ -0,0 +1,241 @@
+package chess;
+
+import chess.bitboard.Zobrist;
+
+/*
+  Fen
+    Le e escreve posicoes em FEN (Forsyth-Edwards Notation):
+      "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1"
+      pecas, lado da vez, roque, casa de en passant, lances desde a ultima captura
+        ou movimento de peao e numero do lance (os quatro ultimos campos sao opcionais).
+    Como as regras de roque e do primeiro avanco do peao usam o contador de
+      movimentos das pecas, os direitos ausentes na FEN sao representados
+      marcando a torre (ou o rei/peao fora da casa inicial) como ja movida.
+
+    load monta a ChessMatch direto na matriz, em uma passada pelos caracteres (O(64)):
+      sem split nem substrings, e os unicos objetos criados sao a partida e as pecas.
+ */
+public final class Fen {
+  public static final String START_POSITION = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+  private static final String PIECE_LETTERS = "PNBRQK";
+
+  private Fen() {
+  }
+
+  public static ChessMatch load(String fen) {
+    try {
+      return parse(fen.trim());
+    } catch (ChessException e) {
+      throw e;
+    } catch (RuntimeException e) {
+      throw new ChessException("Invalid FEN: " + fen);
+    }
+  }
+
+  //FEN da posicao atual da partida.
+  public static String toFen(ChessMatch match) {
+    StringBuilder sb = new StringBuilder(90);
+    for (int row = 0; row < 8; row++) {
+      int empty = 0;
+      for (int column = 0; column < 8; column++) {
+        ChessPiece p = match.piece(row, column);
+        if (p == null) {
+          empty++;
+          continue;
+        }
+        if (empty > 0) {
+          sb.append(empty);
+          empty = 0;
+        }
+        char letter = PIECE_LETTERS.charAt(p.getType().ordinal());
+        sb.append(p.getColor() == Color.WHITE ? letter : Character.toLowerCase(letter));
+      }
+      if (empty > 0) {
+        sb.append(empty);
+      }
+      if (row < 7) {
+        sb.append('/');
+      }
+    }
+
+    //Depois do mate a ChessMatch mantem a vez de quem deu o mate; a FEN tem o lado que levou o mate.
+    Color toMove = match.getCurrentPlayer();
+    int turn = match.getTurn();
+    if (match.getCheckMate()) {
+      toMove = toMove == Color.WHITE ? Color.BLACK : Color.WHITE;
+      turn++;
+    }
+    sb.append(toMove == Color.WHITE ? " w " : " b ");
+    int rights = match.getCastlingRights();
+    if (rights == 0) {
+      sb.append('-');
+    }
+    if ((rights & Zobrist.WHITE_KINGSIDE) != 0) sb.append('K');
+    if ((rights & Zobrist.WHITE_QUEENSIDE) != 0) sb.append('Q');
+    if ((rights & Zobrist.BLACK_KINGSIDE) != 0) sb.append('k');
+    if ((rights & Zobrist.BLACK_QUEENSIDE) != 0) sb.append('q');
+
+    int ep = match.enPassantSquare();
+    sb.append(' ');
+    if (ep < 0) {
+      sb.append('-');
+    } else {
+      sb.append((char) ('a' + ep % 8)).append(8 - ep / 8);
+    }
+    sb.append(' ').append(match.getHalfmoveClock());
+    sb.append(' ').append((turn + 1) / 2);
+    return sb.toString();
+  }
+
+  private static ChessMatch parse(String fen) {
+    int boardEnd = fieldEnd(fen, 0);
+    int sideStart = nextField(fen, boardEnd);
+    if (sideStart + 1 != fieldEnd(fen, sideStart) || !(fen.charAt(sideStart) == 'w' || fen.charAt(sideStart) == 'b')) {
+      throw new ChessException("Invalid FEN: missing side to move");
+    }
+    Color player = fen.charAt(sideStart) == 'w' ? Color.WHITE : Color.BLACK;
+    int castlingStart = nextField(fen, sideStart + 1);
+    int castlingEnd = fieldEnd(fen, castlingStart);
+    int epStart = nextField(fen, castlingEnd);
+    int epEnd = fieldEnd(fen, epStart);
+    int halfmoveStart = nextField(fen, epEnd);
+    int halfmoveEnd = fieldEnd(fen, halfmoveStart);
+    int fullmoveStart = nextField(fen, halfmoveEnd);
+    int halfmove = number(fen, halfmoveStart, halfmoveEnd, 0);
+    int fullmove = number(fen, fullmoveStart, fieldEnd(fen, fullmoveStart), 1);
+    ChessMatch match = new ChessMatch(player, 2 * (fullmove - 1) + (player == Color.WHITE ? 1 : 2), halfmove);
+
+    int kings = 0;
+    int row = 0;
+    int column = 0;
+    for (int i = 0; i < boardEnd; i++) {
+      char c = fen.charAt(i);
+      if (c == '/') {
+        if (column != 8) {
+          throw new ChessException("Invalid FEN: each rank must have 8 squares");
+        }
+        row++;
+        column = 0;
+      } else if (c >= '1' && c <= '8') {
+        column += c - '0';
+      } else {
+        if (row > 7 || column > 7) {
+          throw new ChessException("Invalid FEN: board must have 8 ranks and one king of each color");
+        }
+        Color color = Character.isUpperCase(c) ? Color.WHITE : Color.BLACK;
+        PieceType type = pieceType(c);
+        if (type == PieceType.PAWN && (row == 0 || row == 7)) {
+          throw new ChessException("Invalid FEN: pawns cannot be on the first or last rank");
+        }
+        ChessPiece piece = match.newPiece(type, color);
+        match.placeNewPiece(piece, row, column);
+        if (type == PieceType.PAWN && row != (color == Color.WHITE ? 6 : 1)) {
+          piece.increaseMoveCount();
+        }
+        if (type == PieceType.KING) {
+          kings += (color == Color.WHITE) ? 1 : 16;
+          if (column != 4 || row != (color == Color.WHITE ? 7 : 0)) {
+            piece.increaseMoveCount();
+          }
+        }
+        column++;
+      }
+    }
+    if (row != 7 || column != 8 || kings != 17) {
+      throw new ChessException("Invalid FEN: board must have 8 ranks and one king of each color");
+    }
+
+    int rights = 0;
+    for (int i = castlingStart; i < castlingEnd; i++) {
+      rights |= switch (fen.charAt(i)) {
+        case 'K' -> Zobrist.WHITE_KINGSIDE;
+        case 'Q' -> Zobrist.WHITE_QUEENSIDE;
+        case 'k' -> Zobrist.BLACK_KINGSIDE;
+        case 'q' -> Zobrist.BLACK_QUEENSIDE;
+        default -> 0;
+      };
+    }
+    markMoved(match, (rights & Zobrist.WHITE_KINGSIDE) == 0, 7, 7, Color.WHITE);
+    markMoved(match, (rights & Zobrist.WHITE_QUEENSIDE) == 0, 7, 0, Color.WHITE);
+    markMoved(match, (rights & Zobrist.BLACK_KINGSIDE) == 0, 0, 7, Color.BLACK);
+    markMoved(match, (rights & Zobrist.BLACK_QUEENSIDE) == 0, 0, 0, Color.BLACK);
+
+    ChessPiece enPassant = null;
+    //So vale a casa atras de um peao do adversario que acabou de avancar duas casas:
+    //  fileira 6 com as brancas na vez, 3 com as pretas, e vazia. Outra casa e ignorada.
+    if (epEnd - epStart == 2) {
+      int epColumn = fen.charAt(epStart) - 'a';
+      int epRow = 8 - (fen.charAt(epStart + 1) - '0');
+      int pawnRow = player == Color.WHITE ? 3 : 4;
+      if (epColumn >= 0 && epColumn < 8 && epRow == pawnRow - (player == Color.WHITE ? 1 : -1)
+          && match.piece(epRow, epColumn) == null) {
+        ChessPiece p = match.piece(pawnRow, epColumn);
+        if (p != null && p.getType() == PieceType.PAWN && p.getColor() != player) {
+          enPassant = p;
+        }
+      }
+    }
+    match.setupComplete(enPassant);
+
+    //O rei de quem acabou de jogar nao pode estar em check (a busca capturaria o rei).
+    //  testCheck consulta o mapa de ataques do BitBoard, sem criar objetos.
+    if (match.testCheck(player == Color.WHITE ? Color.BLACK : Color.WHITE)) {
+      throw new ChessException("Invalid FEN: the side not to move is in check");
+    }
+    return match;
+  }
+
+  //Fim do campo que comeca em start (primeiro espaco em branco ou fim da string).
+  private static int fieldEnd(String fen, int start) {
+    int i = start;
+    while (i < fen.length() && !Character.isWhitespace(fen.charAt(i))) {
+      i++;
+    }
+    return i;
+  }
+
+  //Inicio do proximo campo depois de end (fen.length() se nao houver).
+  private static int nextField(String fen, int end) {
+    int i = end;
+    while (i < fen.length() && Character.isWhitespace(fen.charAt(i))) {
+      i++;
+    }
+    return i;
+  }
+
+  //Campo numerico opcional: valor padrao se estiver ausente.
+  private static int number(String fen, int start, int end, int absent) {
+    if (start == end) {
+      return absent;
+    }
+    int value = 0;
+    for (int i = start; i < end; i++) {
+      char c = fen.charAt(i);
+      if (c < '0' || c > '9') {
+        throw new ChessException("Invalid FEN: move counters must be numbers");
+      }
+      value = value * 10 + (c - '0');
+    }
+    return value;
+  }
+
+  private static void markMoved(ChessMatch match, boolean noRight, int row, int column, Color color) {
+    ChessPiece p = match.piece(row, column);
+    if (noRight && p != null && p.getType() == PieceType.ROOK && p.getColor() == color && p.getMoveCount() == 0) {
+      p.increaseMoveCount();
+    }
+  }
+
+  private static PieceType pieceType(char c) {
+    return switch (Character.toUpperCase(c)) {
+      case 'P' -> PieceType.PAWN;
+      case 'N' -> PieceType.KNIGHT;
+      case 'B' -> PieceType.BISHOP;
+      case 'R' -> PieceType.ROOK;
+      case 'Q' -> PieceType.QUEEN;
+      case 'K' -> PieceType.KING;
+      default -> throw new ChessException("Invalid FEN: unknown piece '" + c + "'");
+    };
+  }
+}
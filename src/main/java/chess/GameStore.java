@@ -0,0 +1,275 @@
+package chess;
+
+import chess.bitboard.MoveList;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/*
+  GameStore
+    Arquivo binario de partidas gravado pelo GameStoreWriter, mapeado em memoria:
+      qualquer partida e lida direto do mapeamento, sem texto para interpretar e sem
+      copiar o arquivo para o heap (o que fica em memoria e o page cache do sistema).
+
+    Formato (inteiros big-endian; varint = 7 bits por byte, bit alto = continua)
+      cabecalho:  "GAMESTR2", posicao do indice (long), numero de partidas (int),
+                  posicao do dicionario (long)
+      partida:    resultado (byte), lances (u16), tamanho das tags (u16), tags, lances
+        tag:      numero do nome no dicionario (varint), tamanho do valor (varint), valor (UTF-8)
+        lance:    16 bits = os 15 bits baixos do movimento compactado (origem, destino
+                  e promocao); as flags sao recuperadas dos movimentos legais na reproducao
+      indice:     posicao de cada partida (long)
+      dicionario: numero de nomes (int) e cada nome de tag: tamanho (u8), nome (UTF-8)
+    Os nomes das tags ("Event", "White", ...) se repetem em toda partida, entao ficam
+      uma vez so no dicionario, no fim do arquivo; os valores sao gravados inteiros.
+
+    Arquivos maiores que 2 GB sao mapeados em segmentos de 1 GB que se sobrepoem em
+      RECORD_LIMIT bytes; como nenhuma partida passa desse tamanho, a partida inteira
+      esta no segmento em que comeca.
+    As leituras usam so posicoes absolutas, entao varias threads podem ler ao mesmo tempo.
+ */
+public final class GameStore {
+  static final byte[] MAGIC = "GAMESTR2".getBytes(StandardCharsets.US_ASCII);
+  static final int HEADER_SIZE = MAGIC.length + 20;
+  static final int MOVE_MASK = 0x7FFF;
+  static final int MAX_PLIES = 0xFFFF;
+  static final int MAX_TAGS_SIZE = 0xFFFF;
+  static final int RECORD_LIMIT = 5 + MAX_TAGS_SIZE + 2 * MAX_PLIES;
+  static final String[] RESULTS = {"*", "1-0", "0-1", "1/2-1/2"};
+
+  private static final int SEGMENT_BITS = 30;
+  private static final long SEGMENT_MASK = (1L << SEGMENT_BITS) - 1;
+
+  private final ByteBuffer[] segments;
+  private final long indexOffset;
+  private final int size;
+  private final String[] names;
+  //Numero do nome "FEN" no dicionario (-1 se nenhuma partida tiver a tag).
+  private final int fenName;
+
+  private GameStore(ByteBuffer[] segments, long indexOffset, int size, String[] names) {
+    this.segments = segments;
+    this.indexOffset = indexOffset;
+    this.size = size;
+    this.names = names;
+    fenName = Arrays.asList(names).indexOf("FEN");
+  }
+
+  public static GameStore open(Path file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      long length = channel.size();
+      if (length < HEADER_SIZE) {
+        throw new IOException("Not a game store file: " + file);
+      }
+      ByteBuffer[] segments = new ByteBuffer[(int) ((length + SEGMENT_MASK) >>> SEGMENT_BITS)];
+      for (int k = 0; k < segments.length; k++) {
+        long start = (long) k << SEGMENT_BITS;
+        long mapped = Math.min(length - start, (1L << SEGMENT_BITS) + RECORD_LIMIT);
+        segments[k] = channel.map(FileChannel.MapMode.READ_ONLY, start, mapped);
+      }
+      byte[] magic = new byte[MAGIC.length];
+      segments[0].get(0, magic);
+      if (!Arrays.equals(magic, MAGIC)) {
+        throw new IOException("Not a game store file: " + file);
+      }
+      long indexOffset = segments[0].getLong(MAGIC.length);
+      int size = segments[0].getInt(MAGIC.length + 8);
+      long dictionaryOffset = segments[0].getLong(MAGIC.length + 12);
+      if (size < 0 || indexOffset < HEADER_SIZE || indexOffset + 8L * size != dictionaryOffset
+          || length - dictionaryOffset < 4 || length - dictionaryOffset > Integer.MAX_VALUE) {
+        throw new IOException("Invalid game store index: " + file);
+      }
+      return new GameStore(segments, indexOffset, size, readNames(channel, dictionaryOffset, length, file));
+    }
+  }
+
+  //O dicionario e lido para o heap (sao poucos nomes), sem depender dos segmentos.
+  private static String[] readNames(FileChannel channel, long offset, long length, Path file) throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate((int) (length - offset));
+    while (buffer.hasRemaining()) {
+      if (channel.read(buffer, offset + buffer.position()) < 0) {
+        throw new IOException("Invalid game store dictionary: " + file);
+      }
+    }
+    buffer.flip();
+    try {
+      String[] names = new String[buffer.getInt()];
+      for (int i = 0; i < names.length; i++) {
+        int nameLength = buffer.get() & 0xFF;
+        names[i] = string(buffer, buffer.position(), nameLength);
+        buffer.position(buffer.position() + nameLength);
+      }
+      return names;
+    } catch (RuntimeException e) {
+      throw new IOException("Invalid game store dictionary: " + file);
+    }
+  }
+
+  //Numero de partidas.
+  public int size() {
+    return size;
+  }
+
+  public String result(int game) {
+    long offset = offset(game);
+    return RESULTS[segment(offset).get(local(offset)) & 3];
+  }
+
+  //Numero de meios-lances da partida.
+  public int plies(int game) {
+    long offset = offset(game);
+    return segment(offset).getShort(local(offset) + 1) & 0xFFFF;
+  }
+
+  //Tags do cabecalho, na ordem em que foram gravadas.
+  public Map<String, String> tags(int game) {
+    long offset = offset(game);
+    ByteBuffer buffer = segment(offset);
+    int p = local(offset) + 3;
+    int end = p + 2 + (buffer.getShort(p) & 0xFFFF);
+    p += 2;
+    Map<String, String> tags = new LinkedHashMap<>();
+    while (p < end) {
+      int name = varint(buffer, p);
+      p += varintSize(name);
+      int valueLength = varint(buffer, p);
+      p += varintSize(valueLength);
+      tags.put(names[name], string(buffer, p, valueLength));
+      p += valueLength;
+    }
+    return tags;
+  }
+
+  //Partida completa: tags, lances (com as flags), resultado e a ChessMatch na posicao final.
+  public PgnGame game(int game) {
+    Map<String, String> tags = tags(game);
+    int[] moves = new int[plies(game)];
+    ChessMatch match = replay(game, moves.length, tags.get("FEN"), moves);
+    return new PgnGame(tags, moves, result(game), match);
+  }
+
+  public ChessMatch replay(int game) {
+    return replay(game, plies(game));
+  }
+
+  //Posicao depois dos primeiros plies meios-lances da partida.
+  public ChessMatch replay(int game, int plies) {
+    if (plies < 0 || plies > plies(game)) {
+      throw new IndexOutOfBoundsException("Ply " + plies + " out of range for game " + game);
+    }
+    return replay(game, plies, hasStartPosition(game) ? tags(game).get("FEN") : null, null);
+  }
+
+  /*
+    replay
+      Cada lance de 16 bits e procurado entre os movimentos legais da posicao (que a
+        ChessMatch ja gera para validar o lance) e executado; um lance que nao esta la
+        indica arquivo corrompido e lanca ChessException.
+   */
+  private ChessMatch replay(int game, int plies, String fen, int[] moves) {
+    ChessMatch match = fen != null ? Fen.load(fen) : new ChessMatch();
+    long offset = offset(game);
+    ByteBuffer buffer = segment(offset);
+    int p = local(offset) + 3;
+    p += 2 + (buffer.getShort(p) & 0xFFFF);
+    MoveList legal = new MoveList();
+    for (int i = 0; i < plies; i++, p += 2) {
+      int code = buffer.getShort(p) & MOVE_MASK;
+      match.legalMoves(legal);
+      int move = 0;
+      for (int k = 0; k < legal.size() && move == 0; k++) {
+        if ((legal.get(k) & MOVE_MASK) == code) {
+          move = legal.get(k);
+        }
+      }
+      if (move == 0) {
+        throw new ChessException("Illegal move in game " + game + " at ply " + (i + 1));
+      }
+      match.performChessMove(move);
+      if (moves != null) {
+        moves[i] = move;
+      }
+    }
+    return match;
+  }
+
+  //Procura a tag FEN sem montar o mapa de tags: so compara o numero do nome.
+  private boolean hasStartPosition(int game) {
+    if (fenName < 0) {
+      return false;
+    }
+    long offset = offset(game);
+    ByteBuffer buffer = segment(offset);
+    int p = local(offset) + 3;
+    int end = p + 2 + (buffer.getShort(p) & 0xFFFF);
+    p += 2;
+    while (p < end) {
+      int name = varint(buffer, p);
+      if (name == fenName) {
+        return true;
+      }
+      p += varintSize(name);
+      int valueLength = varint(buffer, p);
+      p += varintSize(valueLength) + valueLength;
+    }
+    return false;
+  }
+
+  //Le um varint na posicao absoluta p.
+  static int varint(ByteBuffer buffer, int p) {
+    int value = 0;
+    for (int shift = 0; ; shift += 7) {
+      int b = buffer.get(p++);
+      value |= (b & 0x7F) << shift;
+      if (b >= 0) {
+        return value;
+      }
+    }
+  }
+
+  static void putVarint(ByteBuffer buffer, int value) {
+    while ((value & ~0x7F) != 0) {
+      buffer.put((byte) (value & 0x7F | 0x80));
+      value >>>= 7;
+    }
+    buffer.put((byte) value);
+  }
+
+  static int varintSize(int value) {
+    int n = 1;
+    while ((value & ~0x7F) != 0) {
+      value >>>= 7;
+      n++;
+    }
+    return n;
+  }
+
+  private static String string(ByteBuffer buffer, int position, int length) {
+    byte[] bytes = new byte[length];
+    buffer.get(position, bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  private long offset(int game) {
+    if (game < 0 || game >= size) {
+      throw new IndexOutOfBoundsException("Game " + game + " out of range for " + size + " games");
+    }
+    long entry = indexOffset + 8L * game;
+    return segment(entry).getLong(local(entry));
+  }
+
+  private ByteBuffer segment(long offset) {
+    return segments[(int) (offset >>> SEGMENT_BITS)];
+  }
+
+  private static int local(long offset) {
+    return (int) (offset & SEGMENT_MASK);
+  }
+}
@@ -0,0 +1,172 @@
+package chess;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+  GameStoreWriter
+    Grava partidas no formato binario do GameStore, uma de cada vez, por um buffer
+      fixo de 64 KB; so as posicoes do indice ficam em memoria ate o close, que grava
+      o indice no fim do arquivo e completa o cabecalho.
+    Cada lance ocupa 2 bytes, contra uns 6 a 7 do movetext em PGN.
+    Os nomes das tags recebem um numero na primeira vez que aparecem; o dicionario
+      com os nomes e gravado no close, depois do indice.
+ */
+public class GameStoreWriter implements Closeable {
+  private static final int BUFFER_SIZE = 1 << 16;
+
+  private final FileChannel channel;
+  private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+  private final ByteBuffer record = ByteBuffer.allocate(GameStore.RECORD_LIMIT);
+  private long position = GameStore.HEADER_SIZE;
+  private long[] offsets = new long[1024];
+  private int size;
+  private final Map<String, Integer> nameIds = new HashMap<>();
+  private final List<byte[]> names = new ArrayList<>();
+
+  private GameStoreWriter(FileChannel channel) {
+    this.channel = channel;
+  }
+
+  public static GameStoreWriter create(Path file) throws IOException {
+    GameStoreWriter writer = new GameStoreWriter(FileChannel.open(file, StandardOpenOption.WRITE,
+        StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING));
+    writer.buffer.put(new byte[GameStore.HEADER_SIZE]);
+    return writer;
+  }
+
+  public void add(PgnGame game) throws IOException {
+    add(game.tags(), game.moves(), game.result());
+  }
+
+  /*
+    add
+      moves sao movimentos compactados (chess.bitboard.Move) a partir da posicao inicial
+        ou da tag FEN; so origem, destino e promocao sao gravados.
+      Lanca IllegalArgumentException se a partida passar de 65535 lances ou de 64 KB de
+        tags, ou se o resultado nao for "1-0", "0-1", "1/2-1/2" ou "*".
+   */
+  public void add(Map<String, String> tags, int[] moves, String result) throws IOException {
+    int code = Arrays.asList(GameStore.RESULTS).indexOf(result);
+    if (code < 0) {
+      throw new IllegalArgumentException("Invalid result: " + result);
+    }
+    if (moves.length > GameStore.MAX_PLIES) {
+      throw new IllegalArgumentException("Game too long to store: " + moves.length + " plies");
+    }
+    record.clear();
+    record.put((byte) code);
+    record.putShort((short) moves.length);
+    record.putShort((short) 0);
+    try {
+      for (Map.Entry<String, String> tag : tags.entrySet()) {
+        byte[] value = tag.getValue().getBytes(StandardCharsets.UTF_8);
+        if (value.length > GameStore.MAX_TAGS_SIZE) {
+          throw new IllegalArgumentException("Tag too long to store: " + tag.getKey());
+        }
+        GameStore.putVarint(record, nameId(tag.getKey()));
+        GameStore.putVarint(record, value.length);
+        record.put(value);
+      }
+    } catch (BufferOverflowException e) {
+      throw new IllegalArgumentException("Tags too long to store");
+    }
+    int tagsSize = record.position() - 5;
+    if (tagsSize > GameStore.MAX_TAGS_SIZE) {
+      throw new IllegalArgumentException("Tags too long to store");
+    }
+    record.putShort(3, (short) tagsSize);
+    for (int move : moves) {
+      record.putShort((short) (move & GameStore.MOVE_MASK));
+    }
+    record.flip();
+
+    if (size == offsets.length) {
+      offsets = Arrays.copyOf(offsets, size * 2);
+    }
+    offsets[size++] = position;
+    position += record.remaining();
+    write(record);
+  }
+
+  private int nameId(String name) {
+    Integer id = nameIds.get(name);
+    if (id == null) {
+      byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+      if (bytes.length > 0xFF) {
+        throw new IllegalArgumentException("Tag too long to store: " + name);
+      }
+      id = names.size();
+      nameIds.put(name, id);
+      names.add(bytes);
+    }
+    return id;
+  }
+
+  //Partidas gravadas ate agora.
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public void close() throws IOException {
+    try {
+      long indexOffset = position;
+      ByteBuffer entry = ByteBuffer.allocate(8);
+      for (int i = 0; i < size; i++) {
+        entry.clear();
+        entry.putLong(offsets[i]).flip();
+        write(entry);
+      }
+      long dictionaryOffset = indexOffset + 8L * size;
+      entry.clear();
+      entry.putInt(names.size()).flip();
+      write(entry);
+      for (byte[] name : names) {
+        entry.clear();
+        entry.put((byte) name.length).flip();
+        write(entry);
+        write(ByteBuffer.wrap(name));
+      }
+      flush();
+      ByteBuffer header = ByteBuffer.allocate(GameStore.HEADER_SIZE);
+      header.put(GameStore.MAGIC).putLong(indexOffset).putInt(size).putLong(dictionaryOffset).flip();
+      while (header.hasRemaining()) {
+        channel.write(header, header.position());
+      }
+    } finally {
+      channel.close();
+    }
+  }
+
+  private void write(ByteBuffer data) throws IOException {
+    while (data.hasRemaining()) {
+      if (!buffer.hasRemaining()) {
+        flush();
+      }
+      int n = Math.min(data.remaining(), buffer.remaining());
+      buffer.put(buffer.position(), data, data.position(), n);
+      buffer.position(buffer.position() + n);
+      data.position(data.position() + n);
+    }
+  }
+
+  private void flush() throws IOException {
+    buffer.flip();
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+    buffer.clear();
+  }
+}
@@ -0,0 +1,87 @@
+package chess;
+
+import chess.bitboard.BitPosition;
+import chess.bitboard.MoveGenerator;
+import chess.bitboard.MoveList;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/*
+  Perft
+    Conta os nos folha da arvore de movimentos legais ate uma profundidade.
+    Os totais sao conhecidos para varias posicoes, entao servem para conferir
+      o gerador de movimentos (roque, en passant, promocao) e medir sua velocidade.
+    O modo divide separa os movimentos da raiz e conta cada um em uma copia
+      da partida dentro de um ForkJoinPool.
+ */
+public final class Perft {
+  private Perft() {
+  }
+
+  public static long perft(ChessMatch chessMatch, int depth) {
+    return chessMatch.perft(depth);
+  }
+
+  //Perft sobre o gerador de bitboards (BitPosition + MoveGenerator), sem alocacao por no.
+  public static long perft(BitPosition position, int depth) {
+    MoveList[] lists = new MoveList[Math.max(1, depth)];
+    for (int i = 0; i < lists.length; i++) {
+      lists[i] = new MoveList();
+    }
+    return perft(position, depth, lists);
+  }
+
+  private static long perft(BitPosition position, int depth, MoveList[] lists) {
+    if (depth == 0) {
+      return 1;
+    }
+    MoveList moves = lists[depth - 1];
+    MoveGenerator.generateLegal(position, moves);
+    if (depth == 1) {
+      return moves.size();
+    }
+    long nodes = 0;
+    for (int i = 0; i < moves.size(); i++) {
+      position.make(moves.get(i));
+      nodes += perft(position, depth - 1, lists);
+      position.unmake(moves.get(i));
+    }
+    return nodes;
+  }
+
+  public static long parallelPerft(ChessMatch chessMatch, int depth) {
+    long nodes = 0;
+    for (long n : divide(chessMatch, depth).values()) {
+      nodes += n;
+    }
+    return nodes;
+  }
+
+  public static Map<String, Long> divide(ChessMatch chessMatch, int depth) {
+    return divide(chessMatch, depth, ForkJoinPool.commonPool());
+  }
+
+  public static Map<String, Long> divide(ChessMatch chessMatch, int depth, ForkJoinPool pool) {
+    if (depth < 1) {
+      throw new IllegalArgumentException("Divide depth must be at least 1");
+    }
+    List<String> moves = chessMatch.legalMoves();
+    List<ForkJoinTask<Long>> tasks = new ArrayList<>();
+    for (String move : moves) {
+      //A copia e feita aqui porque ChessMatch nao pode ser lida enquanto outra thread a altera.
+      ChessMatch copy = new ChessMatch(chessMatch);
+      tasks.add(pool.submit(() -> copy.perft(move, depth)));
+    }
+
+    Map<String, Long> result = new LinkedHashMap<>();
+    for (int i = 0; i < moves.size(); i++) {
+      result.put(moves.get(i), tasks.get(i).join());
+    }
+    return result;
+  }
+}
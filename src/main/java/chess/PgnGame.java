@@ -0,0 +1,36 @@
+package chess;
+
+import chess.bitboard.Move;
+
+import java.util.Map;
+
+/*
+  PgnGame
+    Partida lida pelo PgnReader: as tags do cabecalho (na ordem do arquivo), os lances
+      ja conferidos como movimentos compactados (chess.bitboard.Move), o resultado
+      ("1-0", "0-1", "1/2-1/2" ou "*") e a ChessMatch na posicao final.
+ */
+public record PgnGame(Map<String, String> tags, int[] moves, String result, ChessMatch match) {
+  //Valor da tag ou null.
+  public String tag(String name) {
+    return tags.get(name);
+  }
+
+  //Lances em notacao de coordenadas ("e2e4 e7e5 ...").
+  public String movesString() {
+    StringBuilder sb = new StringBuilder();
+    for (int move : moves) {
+      if (sb.length() > 0) {
+        sb.append(' ');
+      }
+      sb.append(Move.toString(move));
+    }
+    return sb.toString();
+  }
+
+  @Override
+  public String toString() {
+    return tags.getOrDefault("White", "?") + " - " + tags.getOrDefault("Black", "?") + " " + result
+        + " (" + moves.length + " moves)";
+  }
+}
@@ -0,0 +1,362 @@
+package chess;
+
+import chess.bitboard.MoveList;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/*
+  PgnReader
+    Le partidas de um arquivo PGN de qualquer tamanho, uma de cada vez, com memoria
+      limitada: o arquivo passa por um buffer fixo de 64 KB e so a partida atual
+      fica em memoria.
+    Cada lance SAN e conferido com os movimentos legais da ChessMatch da partida
+      (San.resolve) e executado nela; a partida sai como PgnGame ja reproduzida.
+
+    Movetext
+      Numeros de lance ("12." / "12..."), comentarios ({...} e ;), variantes entre
+        parenteses (ignoradas, inclusive aninhadas), NAGs ($1) e linhas de escape (%)
+        sao pulados. O resultado ("1-0", "0-1", "1/2-1/2", "*") ou uma nova tag
+        terminam a partida.
+      Uma tag FEN no cabecalho define a posicao inicial (Fen.load).
+
+    Partidas com lance invalido, ilegal ou ambiguo (ou FEN invalida) sao puladas:
+      skipped conta quantas foram e lastError guarda o motivo da ultima. Qualquer outra
+      excecao ao montar ou reproduzir a partida tambem so pula a partida, nunca a leitura.
+ */
+public class PgnReader implements Iterator<PgnGame>, Closeable {
+  private static final int BUFFER_SIZE = 1 << 16;
+  //Lances e tags maiores que isso sao truncados (e o lance fica invalido).
+  private static final int MAX_TOKEN = 256;
+  private static final int MAX_TAG = 4096;
+
+  private final ReadableByteChannel channel;
+  private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+  private final byte[] bytes = buffer.array();
+  private int position;
+  private int limit;
+  private boolean eof;
+  private boolean started;
+
+  private final byte[] token = new byte[MAX_TOKEN];
+  private final byte[] tag = new byte[MAX_TAG];
+  private final MoveList legal = new MoveList();
+  private int[] moves = new int[256];
+
+  private PgnGame next;
+  private long skipped;
+  private String lastError;
+
+  public PgnReader(ReadableByteChannel channel) {
+    this.channel = channel;
+  }
+
+  public PgnReader(InputStream in) {
+    this(Channels.newChannel(in));
+  }
+
+  public static PgnReader open(Path file) throws IOException {
+    return new PgnReader(FileChannel.open(file, StandardOpenOption.READ));
+  }
+
+  //Partidas restantes como Stream sequencial; fechar o Stream fecha o leitor.
+  public Stream<PgnGame> stream() {
+    Spliterator<PgnGame> spliterator = Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL);
+    return StreamSupport.stream(spliterator, false).onClose(() -> {
+      try {
+        close();
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    });
+  }
+
+  @Override
+  public boolean hasNext() {
+    if (next == null) {
+      try {
+        next = readGame();
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+    return next != null;
+  }
+
+  @Override
+  public PgnGame next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    PgnGame game = next;
+    next = null;
+    return game;
+  }
+
+  //Partidas puladas por erro ate agora.
+  public long skipped() {
+    return skipped;
+  }
+
+  public String lastError() {
+    return lastError;
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+
+  private PgnGame readGame() throws IOException {
+    if (!started) {
+      started = true;
+      skipByteOrderMark();
+    }
+    while (true) {
+      int c = skipWhitespace();
+      if (c < 0) {
+        return null;
+      }
+      Map<String, String> tags = new LinkedHashMap<>();
+      while (c == '[') {
+        readTag(tags);
+        c = skipWhitespace();
+      }
+
+      String error = null;
+      ChessMatch match = null;
+      try {
+        String fen = tags.get("FEN");
+        match = fen != null ? Fen.load(fen) : new ChessMatch();
+      } catch (RuntimeException e) {
+        error = reason(e);
+      }
+
+      int count = 0;
+      String result = null;
+      while (c >= 0 && result == null) {
+        switch (c) {
+          case '[' -> {
+            //Nova partida sem resultado no movetext.
+            position--;
+            c = -1;
+            continue;
+          }
+          case '{' -> skipUntil('}');
+          case ';', '%' -> skipUntil('\n');
+          case '(' -> skipVariation();
+          case '$' -> skipToken();
+          case ')', '}', ']' -> {
+          }
+          default -> {
+            int length = readToken(c);
+            if (isResult(length)) {
+              result = new String(token, 0, length, StandardCharsets.US_ASCII);
+              continue;
+            }
+            int start = skipMoveNumber(length);
+            if (start < length && error == null) {
+              try {
+                System.arraycopy(token, start, token, 0, length - start);
+                match.legalMoves(legal);
+                int move = San.resolve(match, legal, token, length - start);
+                match.performChessMove(move);
+                if (count == moves.length) {
+                  moves = Arrays.copyOf(moves, count * 2);
+                }
+                moves[count++] = move;
+              } catch (RuntimeException e) {
+                error = reason(e);
+              }
+            }
+          }
+        }
+        c = skipWhitespace();
+      }
+
+      if (error != null) {
+        skipped++;
+        lastError = error + " (" + tags.getOrDefault("White", "?") + " - " + tags.getOrDefault("Black", "?") + ")";
+        continue;
+      }
+      if (result == null) {
+        result = tags.getOrDefault("Result", "*");
+      }
+      return new PgnGame(tags, Arrays.copyOf(moves, count), result, match);
+    }
+  }
+
+  //[Nome "valor"], com \" e \\ dentro do valor.
+  private void readTag(Map<String, String> tags) throws IOException {
+    int c = skipWhitespace();
+    int n = 0;
+    while (c >= 0 && c != '"' && c != ']' && !isWhitespace(c)) {
+      if (n < MAX_TAG) {
+        tag[n++] = (byte) c;
+      }
+      c = read();
+    }
+    String name = new String(tag, 0, n, StandardCharsets.UTF_8);
+    while (c >= 0 && c != '"' && c != ']') {
+      c = read();
+    }
+    n = 0;
+    if (c == '"') {
+      c = read();
+      while (c >= 0 && c != '"') {
+        if (c == '\\') {
+          c = read();
+        }
+        if (n < MAX_TAG && c >= 0) {
+          tag[n++] = (byte) c;
+        }
+        c = read();
+      }
+    }
+    while (c >= 0 && c != ']') {
+      c = read();
+    }
+    tags.put(name, new String(tag, 0, n, StandardCharsets.UTF_8));
+  }
+
+  //Le o token que comeca com first ate um espaco ou delimitador (que fica para a proxima leitura).
+  private int readToken(int first) throws IOException {
+    int n = 0;
+    int c = first;
+    while (c >= 0 && !isWhitespace(c) && !isDelimiter(c)) {
+      if (n < MAX_TOKEN) {
+        token[n++] = (byte) c;
+      }
+      c = read();
+    }
+    if (c >= 0) {
+      position--;
+    }
+    return n;
+  }
+
+  private void skipToken() throws IOException {
+    readToken(read());
+  }
+
+  //Inicio do lance depois de um numero de lance colado ("12.e4"); length se o token for so o numero.
+  private int skipMoveNumber(int length) {
+    int i = 0;
+    while (i < length && token[i] >= '0' && token[i] <= '9') {
+      i++;
+    }
+    if (i == 0 || i == length || token[i] != '.') {
+      return i == length ? length : 0;
+    }
+    while (i < length && token[i] == '.') {
+      i++;
+    }
+    return i;
+  }
+
+  private boolean isResult(int length) {
+    return length == 1 && token[0] == '*'
+        || length == 3 && (token[0] == '1' || token[0] == '0') && token[1] == '-' && (token[2] == '0' || token[2] == '1')
+        && token[0] != token[2]
+        || length == 7 && token[0] == '1' && token[1] == '/' && token[2] == '2' && token[3] == '-';
+  }
+
+  //Pula uma variante, que pode ter outras variantes e comentarios dentro.
+  private void skipVariation() throws IOException {
+    int depth = 1;
+    while (depth > 0) {
+      int c = read();
+      switch (c) {
+        case -1 -> depth = 0;
+        case '(' -> depth++;
+        case ')' -> depth--;
+        case '{' -> skipUntil('}');
+        case ';' -> skipUntil('\n');
+        default -> {
+        }
+      }
+    }
+  }
+
+  private void skipUntil(int end) throws IOException {
+    int c = read();
+    while (c >= 0 && c != end) {
+      c = read();
+    }
+  }
+
+  private int skipWhitespace() throws IOException {
+    int c = read();
+    while (c >= 0 && isWhitespace(c)) {
+      c = read();
+    }
+    return c;
+  }
+
+  //BOM do UTF-8 (EF BB BF) no inicio do arquivo.
+  private void skipByteOrderMark() throws IOException {
+    int c = read();
+    if (c == 0xEF) {
+      read();
+      read();
+    } else if (c >= 0) {
+      position--;
+    }
+  }
+
+  private static boolean isWhitespace(int c) {
+    return c == ' ' || c == '\n' || c == '\r' || c == '\t' || c == '\f';
+  }
+
+  private static boolean isDelimiter(int c) {
+    return c == '{' || c == '}' || c == '(' || c == ')' || c == '[' || c == ']' || c == ';' || c == '$';
+  }
+
+  private int read() throws IOException {
+    if (position == limit && !fill()) {
+      return -1;
+    }
+    return bytes[position++] & 0xFF;
+  }
+
+  private boolean fill() throws IOException {
+    if (eof) {
+      return false;
+    }
+    buffer.clear();
+    int n;
+    do {
+      n = channel.read(buffer);
+    } while (n == 0);
+    if (n < 0) {
+      eof = true;
+      return false;
+    }
+    position = 0;
+    limit = buffer.position();
+    return true;
+  }
+
+  //Mensagem da ChessException; outras excecoes (erro interno) levam o nome da classe.
+  private static String reason(RuntimeException e) {
+    return e instanceof ChessException ? e.getMessage() : e.toString();
+  }
+}
@@ -0,0 +1,68 @@
+package chess;
+
+/*
+  PieceIndex
+    Pecas no tabuleiro separadas por cor e tipo, em vetores de tamanho fixo
+      (um unico vetor com CAPACITY posicoes por cor/tipo, barato de criar).
+    Cada peca guarda sua posicao no vetor (ChessPiece.listIndex), entao inserir e
+      remover sao O(1) e percorrer as pecas de um lado nao aloca.
+
+    remove troca a peca pela ultima do vetor; restore desfaz exatamente essa troca.
+      Como undoMove sempre desfaz o ultimo makeMove, restore devolve a ordem original
+      e quem estiver percorrendo o vetor durante make/undo nao pula nem repete pecas.
+ */
+class PieceIndex {
+  //8 peoes; ate 10 pecas do mesmo tipo com promocoes (2 + 8).
+  private static final int CAPACITY = 10;
+
+  private final ChessPiece[] pieces = new ChessPiece[12 * CAPACITY];
+  private final int[] counts = new int[12];
+
+  private static int slot(Color color, PieceType type) {
+    return color.ordinal() * 6 + type.ordinal();
+  }
+
+  private static int at(int slot, int i) {
+    return slot * CAPACITY + i;
+  }
+
+  public int count(Color color, PieceType type) {
+    return counts[slot(color, type)];
+  }
+
+  public ChessPiece get(Color color, PieceType type, int i) {
+    return pieces[at(slot(color, type), i)];
+  }
+
+  public void add(ChessPiece piece) {
+    int s = slot(piece.getColor(), piece.getType());
+    if (counts[s] == CAPACITY) {
+      throw new IllegalStateException("Too many " + piece.getColor() + " " + piece.getType() + " pieces on the board");
+    }
+    piece.listIndex = counts[s];
+    pieces[at(s, counts[s]++)] = piece;
+  }
+
+  public void remove(ChessPiece piece) {
+    int s = slot(piece.getColor(), piece.getType());
+    int i = piece.listIndex;
+    ChessPiece last = pieces[at(s, --counts[s])];
+    pieces[at(s, i)] = last;
+    last.listIndex = i;
+    pieces[at(s, counts[s])] = null;
+    piece.listIndex = i;
+  }
+
+  //Devolve a ultima peca removida ao lugar de onde ela saiu.
+  public void restore(ChessPiece piece) {
+    int s = slot(piece.getColor(), piece.getType());
+    int i = piece.listIndex;
+    if (i < counts[s]) {
+      ChessPiece displaced = pieces[at(s, i)];
+      pieces[at(s, counts[s])] = displaced;
+      displaced.listIndex = counts[s];
+    }
+    pieces[at(s, i)] = piece;
+    counts[s]++;
+  }
+}
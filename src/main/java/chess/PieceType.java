@@ -0,0 +1,10 @@
+package chess;
+
+public enum PieceType {
+  PAWN,
+  KNIGHT,
+  BISHOP,
+  ROOK,
+  QUEEN,
+  KING;
+}
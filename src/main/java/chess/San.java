@@ -0,0 +1,139 @@
+package chess;
+
+import chess.bitboard.Bitboards;
+import chess.bitboard.Move;
+import chess.bitboard.MoveList;
+
+import java.nio.charset.StandardCharsets;
+
+/*
+  San
+    Converte um lance em SAN (Standard Algebraic Notation: "e4", "Nbd7", "exd6",
+      "R1a3", "e8=Q+", "O-O-O") no movimento compactado correspondente, procurando
+      entre os movimentos legais da partida.
+    Sufixos de check, mate e anotacao (+ # ! ?) sao ignorados; a promocao pode vir com
+      ou sem "=", e o roque tambem e aceito com zeros ("0-0").
+    O lance e lido direto de um vetor de bytes ASCII, para o leitor de PGN nao criar
+      uma String por lance.
+ */
+public final class San {
+  private static final String PIECE_LETTERS = "PNBRQK";
+
+  private San() {
+  }
+
+  public static int resolve(ChessMatch match, String san) {
+    MoveList legal = new MoveList();
+    match.legalMoves(legal);
+    byte[] bytes = san.getBytes(StandardCharsets.US_ASCII);
+    return resolve(match, legal, bytes, bytes.length);
+  }
+
+  /*
+    resolve
+      legal deve ter os movimentos legais da posicao atual de match (ChessMatch.legalMoves).
+      Lanca ChessException se o lance for invalido, ilegal ou ambiguo.
+   */
+  static int resolve(ChessMatch match, MoveList legal, byte[] san, int length) {
+    int end = length;
+    while (end > 0 && isSuffix(san[end - 1])) {
+      end--;
+    }
+    if (end >= 3 && (san[0] == 'O' || san[0] == '0')) {
+      return castling(legal, san, end);
+    }
+
+    int i = 0;
+    int type = PieceType.PAWN.ordinal();
+    if (end > 0 && san[0] >= 'B' && san[0] <= 'R') {
+      type = PIECE_LETTERS.indexOf(san[0]);
+      if (type <= 0) {
+        throw invalid(san, length);
+      }
+      i = 1;
+    }
+
+    int promotion = 0;
+    if (end >= 2 && PIECE_LETTERS.indexOf(san[end - 1]) > 0 && type == PieceType.PAWN.ordinal()) {
+      promotion = PIECE_LETTERS.indexOf(san[end - 1]);
+      end -= san[end - 2] == '=' ? 2 : 1;
+    }
+    if (end - i < 2 || !isFile(san[end - 2]) || !isRank(san[end - 1])) {
+      throw invalid(san, length);
+    }
+    int to = square(san[end - 2], san[end - 1]);
+
+    //Entre a peca e o destino: desambiguacao (coluna, fileira ou casa) e o "x" da captura.
+    int fromColumn = -1;
+    int fromRow = -1;
+    for (int k = i; k < end - 2; k++) {
+      byte c = san[k];
+      if (isFile(c)) {
+        fromColumn = c - 'a';
+      } else if (isRank(c)) {
+        fromRow = '8' - c;
+      } else if (c != 'x' && c != ':' && c != '-') {
+        throw invalid(san, length);
+      }
+    }
+
+    int found = Move.NONE;
+    for (int k = 0; k < legal.size(); k++) {
+      int move = legal.get(k);
+      int from = Move.from(move);
+      if (Move.to(move) != to || Move.promotion(move) != promotion || (move & Move.CASTLING) != 0) {
+        continue;
+      }
+      if (fromColumn >= 0 && Bitboards.column(from) != fromColumn || fromRow >= 0 && Bitboards.row(from) != fromRow) {
+        continue;
+      }
+      ChessPiece piece = match.piece(Bitboards.row(from), Bitboards.column(from));
+      if (piece == null || piece.getType().ordinal() != type) {
+        continue;
+      }
+      if (found != Move.NONE) {
+        throw new ChessException("Ambiguous move: " + text(san, length));
+      }
+      found = move;
+    }
+    if (found == Move.NONE) {
+      throw new ChessException("Illegal move: " + text(san, length));
+    }
+    return found;
+  }
+
+  private static int castling(MoveList legal, byte[] san, int end) {
+    boolean queenside = end >= 5;
+    for (int k = 0; k < legal.size(); k++) {
+      int move = legal.get(k);
+      if ((move & Move.CASTLING) != 0 && (Move.to(move) < Move.from(move)) == queenside) {
+        return move;
+      }
+    }
+    throw new ChessException("Illegal move: " + text(san, end));
+  }
+
+  private static boolean isSuffix(byte c) {
+    return c == '+' || c == '#' || c == '!' || c == '?';
+  }
+
+  private static boolean isFile(byte c) {
+    return c >= 'a' && c <= 'h';
+  }
+
+  private static boolean isRank(byte c) {
+    return c >= '1' && c <= '8';
+  }
+
+  private static int square(byte file, byte rank) {
+    return Bitboards.square('8' - rank, file - 'a');
+  }
+
+  private static ChessException invalid(byte[] san, int length) {
+    return new ChessException("Invalid SAN move: " + text(san, length));
+  }
+
+  private static String text(byte[] san, int length) {
+    return new String(san, 0, length, StandardCharsets.US_ASCII);
+  }
+}
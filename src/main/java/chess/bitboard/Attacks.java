@@ -0,0 +1,214 @@
+package chess.bitboard;
+
+/*
+  Attacks
+    Conjunto de casas atacadas por uma peca em uma casa, como bitboard.
+    As pecas deslizantes param na primeira casa ocupada (que tambem conta como atacada).
+
+  Magic bitboards (torre, bispo e dama)
+    Para cada casa, as casas que podem bloquear o raio (sem as bordas) formam a mascara.
+    Multiplicando as pecas dentro da mascara por um numero "magico" e deslocando,
+      cada combinacao de bloqueios vira um indice unico em uma tabela pre-calculada:
+        attacks = TABLE[offset[sq] + ((occupied & mask[sq]) * magic[sq] >>> shift[sq])]
+    Os numeros magicos abaixo foram encontrados por busca aleatoria (numeros esparsos,
+      xorshift com semente fixa) ate nao haver colisao entre combinacoes com ataques
+      diferentes; a inicializacao da classe so preenche as tabelas.
+ */
+public final class Attacks {
+  private static final int[][] KNIGHT_OFFSETS = {{-2, -1}, {-2, 1}, {-1, -2}, {-1, 2}, {1, -2}, {1, 2}, {2, -1}, {2, 1}};
+  private static final int[][] KING_OFFSETS = {{-1, -1}, {-1, 0}, {-1, 1}, {0, -1}, {0, 1}, {1, -1}, {1, 0}, {1, 1}};
+  private static final int[][] BISHOP_DIRECTIONS = {{-1, -1}, {-1, 1}, {1, -1}, {1, 1}};
+  private static final int[][] ROOK_DIRECTIONS = {{-1, 0}, {0, -1}, {0, 1}, {1, 0}};
+
+  //Tabelas das pecas que saltam: casas atacadas a partir de cada casa (peao por cor).
+  private static final long[] KNIGHT_ATTACKS = new long[64];
+  private static final long[] KING_ATTACKS = new long[64];
+  private static final long[][] PAWN_ATTACKS = new long[2][64];
+
+  private static final long[] ROOK_MASKS = new long[64];
+  private static final long[] ROOK_MAGICS = {
+      0x1080004008801020L, 0x0840092002C03000L, 0x1900200010400900L, 0x0880100008000480L,
+      0x4200100420080200L, 0x8100020100080400L, 0x0200040110886200L, 0x0200008040220411L,
+      0x0404800084400220L, 0x0000401000402000L, 0x0086001081220440L, 0x0408800800100280L,
+      0x000A001201040820L, 0x8848800200840080L, 0x4001000100040200L, 0x0442000102105084L,
+      0x9080010020804100L, 0x0040404000201009L, 0x0000808010002009L, 0x2200090021D00100L,
+      0x0008008008040080L, 0x0004004002010040L, 0x0011040008015042L, 0x00000A0001768104L,
+      0x0000800080204009L, 0x2010004140002001L, 0x9800200280100080L, 0x1000100080080080L,
+      0x0442000A00049020L, 0x2100040080020080L, 0x0800120400900148L, 0x0010040A00128541L,
+      0x2800804000800030L, 0x1010002000400041L, 0x4000200011004100L, 0x0610008410800800L,
+      0x0400802402800800L, 0xC100020080800400L, 0x0002000802000401L, 0x0182085882000401L,
+      0x0220204000808000L, 0x2860100040024022L, 0x0001002004110040L, 0x99101042000A0020L,
+      0x0004080004008080L, 0x0010040002008080L, 0x2012004881020004L, 0x8300842444820011L,
+      0x0088403882010200L, 0x0820400080210100L, 0x0110910040A00300L, 0x0801100280080480L,
+      0x0242009008200600L, 0x1002000489500200L, 0x0040800200010080L, 0x0091800041000080L,
+      0x0000209300488001L, 0x04C1002414824001L, 0x020020000B001041L, 0x7000100004200901L,
+      0x8002002004100802L, 0x30010002084C0007L, 0x0888221800813004L, 0x4000002840840112L
+  };
+  private static final int[] ROOK_SHIFTS = new int[64];
+  private static final int[] ROOK_OFFSETS = new int[64];
+  private static final long[] ROOK_TABLE;
+
+  private static final long[] BISHOP_MASKS = new long[64];
+  private static final long[] BISHOP_MAGICS = {
+      0xA010041108003100L, 0x006082020A002900L, 0x6810010619200000L, 0x08281A0520000408L,
+      0x0001104001000400L, 0x0018901008048400L, 0x00040A0210245280L, 0x000200210808A402L,
+      0x9140048410821200L, 0x0800091010820041L, 0x20504804832202C0L, 0x0100091401081000L,
+      0x8021011140000012L, 0x0810020804450400L, 0x208B0542109008A2L, 0x0080084A08040204L,
+      0x0040E2A80811244CL, 0x2505022008008108L, 0x0430220100420040L, 0x010A040420220040L,
+      0x1105000290400000L, 0x0093001200822120L, 0x4000A62048043004L, 0x280120048A015004L,
+      0x006090002A020814L, 0x44042000240800D0L, 0x01102800040A4400L, 0x1004080080220040L,
+      0x0001001011004024L, 0x0010044000805040L, 0x0914041200820100L, 0x0004821012821480L,
+      0x0024040500C05021L, 0x0088611002080200L, 0x0116080A00040020L, 0x4000020080080080L,
+      0x2450450140840040L, 0x0000880201484100L, 0x0222020404020092L, 0x8081110600002E00L,
+      0x2842101105000801L, 0x1100809008001025L, 0x00020202221C0400L, 0x0422014022009020L,
+      0x0210046102100C00L, 0xC004008082029102L, 0x00AA461801101200L, 0x0404080080201108L,
+      0x020542108C205002L, 0x0410544804100100L, 0x0040910841100000L, 0x0400200042021100L,
+      0x00004204850400C0L, 0x0200100410A42102L, 0x1040020801210102L, 0x0805040410420000L,
+      0x2884804130100200L, 0x800C262201242000L, 0x1058000194108800L, 0x0014221054420204L,
+      0x0104000012A02200L, 0x0200881003300100L, 0x0140400202840100L, 0x0402020801010201L
+  };
+  private static final int[] BISHOP_SHIFTS = new int[64];
+  private static final int[] BISHOP_OFFSETS = new int[64];
+  private static final long[] BISHOP_TABLE;
+
+  static {
+    for (int sq = 0; sq < 64; sq++) {
+      KNIGHT_ATTACKS[sq] = leaper(sq, KNIGHT_OFFSETS);
+      KING_ATTACKS[sq] = leaper(sq, KING_OFFSETS);
+      long b = Bitboards.bit(sq);
+      PAWN_ATTACKS[BitPosition.WHITE][sq] = (b >>> 9 & ~Bitboards.FILE_H) | (b >>> 7 & ~Bitboards.FILE_A);
+      PAWN_ATTACKS[BitPosition.BLACK][sq] = (b << 7 & ~Bitboards.FILE_H) | (b << 9 & ~Bitboards.FILE_A);
+    }
+    ROOK_TABLE = initMagics(ROOK_DIRECTIONS, ROOK_MASKS, ROOK_MAGICS, ROOK_SHIFTS, ROOK_OFFSETS);
+    BISHOP_TABLE = initMagics(BISHOP_DIRECTIONS, BISHOP_MASKS, BISHOP_MAGICS, BISHOP_SHIFTS, BISHOP_OFFSETS);
+  }
+
+  private Attacks() {
+  }
+
+  public static long knight(int square) {
+    return KNIGHT_ATTACKS[square];
+  }
+
+  public static long king(int square) {
+    return KING_ATTACKS[square];
+  }
+
+  //Casas atacadas por um peao da cor informada (ordinal de Color); brancas andam para a fileira 0.
+  public static long pawn(int color, int square) {
+    return PAWN_ATTACKS[color][square];
+  }
+
+  /*
+    pawnPushes
+      Avancos de um peao sem captura: uma casa se estiver vazia e, se firstMove,
+        duas casas quando as duas estiverem vazias.
+   */
+  public static long pawnPushes(int color, int square, long occupied, boolean firstMove) {
+    int forward = color == BitPosition.WHITE ? -8 : 8;
+    int to = square + forward;
+    if ((to & ~63) != 0 || (occupied & Bitboards.bit(to)) != 0) {
+      return 0L;
+    }
+    long pushes = Bitboards.bit(to);
+    int to2 = to + forward;
+    if (firstMove && (to2 & ~63) == 0 && (occupied & Bitboards.bit(to2)) == 0) {
+      pushes |= Bitboards.bit(to2);
+    }
+    return pushes;
+  }
+
+  public static long bishop(int square, long occupied) {
+    return BISHOP_TABLE[BISHOP_OFFSETS[square] + (int) ((occupied & BISHOP_MASKS[square]) * BISHOP_MAGICS[square] >>> BISHOP_SHIFTS[square])];
+  }
+
+  public static long rook(int square, long occupied) {
+    return ROOK_TABLE[ROOK_OFFSETS[square] + (int) ((occupied & ROOK_MASKS[square]) * ROOK_MAGICS[square] >>> ROOK_SHIFTS[square])];
+  }
+
+  public static long queen(int square, long occupied) {
+    return bishop(square, occupied) | rook(square, occupied);
+  }
+
+  private static long leaper(int square, int[][] offsets) {
+    long attacks = 0;
+    int row = Bitboards.row(square);
+    int column = Bitboards.column(square);
+    for (int[] o : offsets) {
+      int r = row + o[0];
+      int c = column + o[1];
+      if (((r | c) & ~7) == 0) {
+        attacks |= Bitboards.bit(Bitboards.square(r, c));
+      }
+    }
+    return attacks;
+  }
+
+  private static long slider(int square, long occupied, int[][] directions) {
+    long attacks = 0;
+    int row = Bitboards.row(square);
+    int column = Bitboards.column(square);
+    for (int[] d : directions) {
+      int r = row + d[0];
+      int c = column + d[1];
+      while (((r | c) & ~7) == 0) {
+        long bit = Bitboards.bit(Bitboards.square(r, c));
+        attacks |= bit;
+        if ((occupied & bit) != 0) {
+          break;
+        }
+        r += d[0];
+        c += d[1];
+      }
+    }
+    return attacks;
+  }
+
+  /*
+    initMagics
+      Para cada casa calcula a mascara e percorre todos os subconjuntos dela
+        (carry-rippler), gravando o ataque de cada um no indice dado pelo numero magico.
+      Retorna a tabela de ataques de todas as casas.
+   */
+  private static long[] initMagics(int[][] directions, long[] masks, long[] magics, int[] shifts, int[] offsets) {
+    int size = 0;
+    for (int sq = 0; sq < 64; sq++) {
+      masks[sq] = relevantMask(sq, directions);
+      shifts[sq] = 64 - Bitboards.count(masks[sq]);
+      offsets[sq] = size;
+      size += 1 << Bitboards.count(masks[sq]);
+    }
+
+    long[] table = new long[size];
+    for (int sq = 0; sq < 64; sq++) {
+      long subset = 0;
+      do {
+        int index = offsets[sq] + (int) (subset * magics[sq] >>> shifts[sq]);
+        long attacks = slider(sq, subset, directions);
+        if (table[index] != 0 && table[index] != attacks) {
+          throw new IllegalStateException("Invalid magic number for square " + sq);
+        }
+        table[index] = attacks;
+        subset = (subset - masks[sq]) & masks[sq];
+      } while (subset != 0);
+    }
+    return table;
+  }
+
+  //Casas do raio que podem bloquear a peca; a ultima casa de cada direcao nunca bloqueia nada.
+  private static long relevantMask(int square, int[][] directions) {
+    long mask = 0;
+    int row = Bitboards.row(square);
+    int column = Bitboards.column(square);
+    for (int[] d : directions) {
+      int r = row + d[0];
+      int c = column + d[1];
+      while ((((r + d[0]) | (c + d[1])) & ~7) == 0) {
+        mask |= Bitboards.bit(Bitboards.square(r, c));
+        r += d[0];
+        c += d[1];
+      }
+    }
+    return mask;
+  }
+}
@@ -0,0 +1,187 @@
+package chess.bitboard;
+
+import boardgame.Board;
+import boardgame.BoardException;
+import boardgame.Piece;
+import boardgame.Position;
+import chess.ChessPiece;
+import chess.Color;
+import chess.PieceType;
+
+/*
+  BitBoard
+    Tabuleiro 8x8 que, alem da matriz de pecas do Board, mantem doze bitboards
+      (uma por cor e tipo de peca) e as mascaras de ocupacao de cada cor.
+    Toda alteracao passa por placePiece/removePiece, entao os bitboards, a parte
+      da chave Zobrist referente as pecas (e a chave so dos peoes) e os mapas de ataque
+      estao sempre sincronizados com a matriz.
+
+  Mapas de ataque
+    Para cada casa guarda as casas atacadas pela peca que esta nela e, para cada cor,
+      quantas pecas atacam cada casa. Quando uma casa muda so sao recalculados
+      a peca da propria casa e as pecas deslizantes cujo ataque passava por ela,
+      entao "a casa esta atacada?" e respondido em O(1).
+ */
+public class BitBoard extends Board {
+  private static final int PAWN = PieceType.PAWN.ordinal();
+  private static final int KNIGHT = PieceType.KNIGHT.ordinal();
+  private static final int BISHOP = PieceType.BISHOP.ordinal();
+  private static final int ROOK = PieceType.ROOK.ordinal();
+  private static final int QUEEN = PieceType.QUEEN.ordinal();
+
+  private final long[] pieces = new long[12];
+  private final long[] occupancy = new long[2];
+  private long occupied;
+  private long key;
+  private long pawnKey;
+
+  private final int[] kinds = new int[64];
+  private final long[] attacksFrom = new long[64];
+  private final int[][] attackCount = new int[2][64];
+  private final long[] attacked = new long[2];
+
+  public BitBoard() {
+    super(8, 8);
+  }
+
+  public static int index(Color color, PieceType type) {
+    return color.ordinal() * 6 + type.ordinal();
+  }
+
+  public long pieces(Color color, PieceType type) {
+    return pieces[index(color, type)];
+  }
+
+  public long pieces(int index) {
+    return pieces[index];
+  }
+
+  public long occupancy(Color color) {
+    return occupancy[color.ordinal()];
+  }
+
+  public long occupied() {
+    return occupied;
+  }
+
+  //XOR das chaves Zobrist de todas as pecas em suas casas.
+  public long getKey() {
+    return key;
+  }
+
+  //XOR das chaves Zobrist so dos peoes: muda apenas quando algum peao se move, e capturado ou promovido.
+  public long getPawnKey() {
+    return pawnKey;
+  }
+
+  //Verifica se alguma peca da cor informada ataca a casa (indice de bitboard).
+  public boolean isAttacked(int square, Color color) {
+    return attackCount[color.ordinal()][square] > 0;
+  }
+
+  //Todas as casas atacadas pelas pecas da cor informada.
+  public long attacks(Color color) {
+    return attacked[color.ordinal()];
+  }
+
+  //Casas atacadas pela peca que esta na casa informada (0 se vazia).
+  public long attacksFrom(int square) {
+    return attacksFrom[square];
+  }
+
+  @Override
+  public void placePiece(Piece piece, Position position) {
+    super.placePiece(piece, position);
+    ChessPiece p = (ChessPiece) piece;
+    int square = Bitboards.square(position.getRow(), position.getColumn());
+    int index = index(p.getColor(), p.getType());
+    long bit = Bitboards.bit(square);
+    pieces[index] |= bit;
+    occupancy[p.getColor().ordinal()] |= bit;
+    occupied |= bit;
+    key ^= Zobrist.piece(index, square);
+    if (index % 6 == PAWN) {
+      pawnKey ^= Zobrist.piece(index, square);
+    }
+
+    kinds[square] = index;
+    updateSliders(square);
+    setAttacks(square, index / 6, attacks(index, square));
+  }
+
+  @Override
+  public Piece removePiece(Position position) {
+    Piece piece = super.removePiece(position);
+    if (piece != null) {
+      ChessPiece p = (ChessPiece) piece;
+      int square = Bitboards.square(position.getRow(), position.getColumn());
+      int index = index(p.getColor(), p.getType());
+      long bit = Bitboards.bit(square);
+      pieces[index] &= ~bit;
+      occupancy[p.getColor().ordinal()] &= ~bit;
+      occupied &= ~bit;
+      key ^= Zobrist.piece(index, square);
+      if (index % 6 == PAWN) {
+        pawnKey ^= Zobrist.piece(index, square);
+      }
+
+      setAttacks(square, index / 6, 0L);
+      updateSliders(square);
+    }
+    return piece;
+  }
+
+  //Como o tabuleiro e sempre 8x8, basta verificar se row e column cabem em 3 bits.
+  @Override
+  public boolean positionExists(int row, int column) {
+    return ((row | column) & ~7) == 0;
+  }
+
+  @Override
+  public boolean thereIsAPiece(Position position) {
+    if (!positionExists(position)) {
+      throw new BoardException("Position not on the board");
+    }
+    return (occupied & Bitboards.bit(Bitboards.square(position.getRow(), position.getColumn()))) != 0;
+  }
+
+  //Recalcula as pecas deslizantes que atacavam a casa alterada (o raio delas mudou).
+  private void updateSliders(int square) {
+    long bit = Bitboards.bit(square);
+    long sliders = (pieces[BISHOP] | pieces[ROOK] | pieces[QUEEN] | pieces[6 + BISHOP] | pieces[6 + ROOK] | pieces[6 + QUEEN]) & ~bit;
+    for (; sliders != 0; sliders &= sliders - 1) {
+      int s = Bitboards.first(sliders);
+      if ((attacksFrom[s] & bit) != 0) {
+        setAttacks(s, kinds[s] / 6, attacks(kinds[s], s));
+      }
+    }
+  }
+
+  private long attacks(int index, int square) {
+    int type = index % 6;
+    if (type == PAWN) return Attacks.pawn(index / 6, square);
+    if (type == KNIGHT) return Attacks.knight(square);
+    if (type == BISHOP) return Attacks.bishop(square, occupied);
+    if (type == ROOK) return Attacks.rook(square, occupied);
+    if (type == QUEEN) return Attacks.queen(square, occupied);
+    return Attacks.king(square);
+  }
+
+  private void setAttacks(int square, int color, long attacks) {
+    long old = attacksFrom[square];
+    int[] count = attackCount[color];
+    for (long removed = old & ~attacks; removed != 0; removed &= removed - 1) {
+      int s = Bitboards.first(removed);
+      if (--count[s] == 0) {
+        attacked[color] &= ~Bitboards.bit(s);
+      }
+    }
+    for (long added = attacks & ~old; added != 0; added &= added - 1) {
+      int s = Bitboards.first(added);
+      if (count[s]++ == 0) {
+        attacked[color] |= Bitboards.bit(s);
+      }
+    }
+    attacksFrom[square] = attacks;
+  }
+}
@@ -0,0 +1,397 @@
+package chess.bitboard;
+
+import chess.Color;
+import chess.PieceType;
+
+import java.util.Arrays;
+
+/*
+  BitPosition
+    Posicao compacta (bitboards + vetor de 64 casas) com make/unmake de movimentos
+      compactados, sem objetos Piece nem Position.
+    E a base do gerador de movimentos legais e da busca: copiar e alterar uma
+      BitPosition nao aloca memoria.
+    As pecas sao indexadas como em BitBoard: cor * 6 + tipo (ordinais de Color e PieceType).
+    Os termos de material e posicao (PieceSquareTables) de meio-jogo e final, a fase
+      do jogo e a chave Zobrist so dos peoes sao atualizados em put/remove, por onde passam todas as mudancas do make/unmake
+      (torre do roque, peao capturado en passant, troca do peao pela peca promovida).
+ */
+public class BitPosition {
+  public static final int BLACK = 0;
+  public static final int WHITE = 1;
+  public static final int EMPTY = -1;
+
+  private static final int PAWN = PieceType.PAWN.ordinal();
+  private static final int KING = PieceType.KING.ordinal();
+
+  //Direitos de roque que continuam depois de um movimento sair/chegar em cada casa.
+  private static final int[] CASTLING_MASK = new int[64];
+
+  static {
+    Arrays.fill(CASTLING_MASK, 15);
+    CASTLING_MASK[60] &= ~(Zobrist.WHITE_KINGSIDE | Zobrist.WHITE_QUEENSIDE);
+    CASTLING_MASK[63] &= ~Zobrist.WHITE_KINGSIDE;
+    CASTLING_MASK[56] &= ~Zobrist.WHITE_QUEENSIDE;
+    CASTLING_MASK[4] &= ~(Zobrist.BLACK_KINGSIDE | Zobrist.BLACK_QUEENSIDE);
+    CASTLING_MASK[7] &= ~Zobrist.BLACK_KINGSIDE;
+    CASTLING_MASK[0] &= ~Zobrist.BLACK_QUEENSIDE;
+  }
+
+  private final long[] pieces = new long[12];
+  private final long[] occupancy = new long[2];
+  private long occupied;
+  private final int[] board = new int[64];
+  private int side;
+  private int castling;
+  private int enPassantSquare;
+  private int halfmoveClock;
+  private long key;
+  private long pawnKey;
+  private final int[] midgame = new int[2];
+  private final int[] endgame = new int[2];
+  private int phase;
+
+  //Pilha com o estado anterior a cada make, desfeito pelo unmake.
+  private int ply;
+  private int[] undoCaptured = new int[256];
+  private int[] undoCastling = new int[256];
+  private int[] undoEnPassant = new int[256];
+  private int[] undoHalfmove = new int[256];
+  private long[] undoKey = new long[256];
+
+  public BitPosition() {
+    Arrays.fill(board, EMPTY);
+    enPassantSquare = -1;
+  }
+
+  /*
+    Copia independente (inclusive a pilha de unmake, usada na deteccao de repeticao),
+      para que varias threads busquem a mesma posicao sem compartilhar estado.
+   */
+  public BitPosition(BitPosition other) {
+    System.arraycopy(other.pieces, 0, pieces, 0, pieces.length);
+    System.arraycopy(other.occupancy, 0, occupancy, 0, occupancy.length);
+    System.arraycopy(other.board, 0, board, 0, board.length);
+    occupied = other.occupied;
+    side = other.side;
+    castling = other.castling;
+    enPassantSquare = other.enPassantSquare;
+    halfmoveClock = other.halfmoveClock;
+    key = other.key;
+    pawnKey = other.pawnKey;
+    midgame[BLACK] = other.midgame[BLACK];
+    midgame[WHITE] = other.midgame[WHITE];
+    endgame[BLACK] = other.endgame[BLACK];
+    endgame[WHITE] = other.endgame[WHITE];
+    phase = other.phase;
+    ply = other.ply;
+    undoCaptured = other.undoCaptured.clone();
+    undoCastling = other.undoCastling.clone();
+    undoEnPassant = other.undoEnPassant.clone();
+    undoHalfmove = other.undoHalfmove.clone();
+    undoKey = other.undoKey.clone();
+  }
+
+  /*
+    set
+      Copia as pecas do BitBoard e o estado informado.
+      enPassantSquare e a casa por onde o peao passou no avanco duplo (-1 se nao houver).
+   */
+  public void set(BitBoard bitBoard, Color sideToMove, int castlingRights, int enPassantSquare, int halfmoveClock) {
+    Arrays.fill(board, EMPTY);
+    Arrays.fill(pieces, 0L);
+    Arrays.fill(occupancy, 0L);
+    Arrays.fill(midgame, 0);
+    Arrays.fill(endgame, 0);
+    occupied = 0;
+    pawnKey = 0;
+    phase = 0;
+    for (int p = 0; p < 12; p++) {
+      for (long b = bitBoard.pieces(p); b != 0; b &= b - 1) {
+        put(p, Bitboards.first(b));
+      }
+    }
+    side = sideToMove.ordinal();
+    castling = castlingRights;
+    this.enPassantSquare = enPassantSquare;
+    this.halfmoveClock = halfmoveClock;
+    ply = 0;
+    key = computeKey();
+  }
+
+  /*
+    setHistory
+      Chaves das posicoes anteriores da partida, da mais antiga para a mais recente,
+        depois de set: entram na pilha do make como lances ja jogados, para o
+        isRepetition enxergar repeticoes com a partida. So as ultimas halfmoveClock contam.
+   */
+  public void setHistory(long[] keys, int count) {
+    ply = 0;
+    for (int i = Math.max(0, count - halfmoveClock); i < count; i++) {
+      if (ply == undoKey.length) {
+        grow();
+      }
+      undoKey[ply] = keys[i];
+      undoCaptured[ply] = EMPTY;
+      ply++;
+    }
+  }
+
+  public int sideToMove() {
+    return side;
+  }
+
+  public long pieces(int piece) {
+    return pieces[piece];
+  }
+
+  public long pieces(int color, PieceType type) {
+    return pieces[color * 6 + type.ordinal()];
+  }
+
+  public long occupancy(int color) {
+    return occupancy[color];
+  }
+
+  public long occupied() {
+    return occupied;
+  }
+
+  //Indice da peca na casa (cor * 6 + tipo) ou EMPTY.
+  public int pieceAt(int square) {
+    return board[square];
+  }
+
+  public int castlingRights() {
+    return castling;
+  }
+
+  public int enPassantSquare() {
+    return enPassantSquare;
+  }
+
+  public int halfmoveClock() {
+    return halfmoveClock;
+  }
+
+  public long key() {
+    return key;
+  }
+
+  //Chave Zobrist so dos peoes (chave da PawnHashTable).
+  public long pawnKey() {
+    return pawnKey;
+  }
+
+  //Soma de material e posicao de meio-jogo das pecas da cor informada.
+  public int midgame(int color) {
+    return midgame[color];
+  }
+
+  public int endgame(int color) {
+    return endgame[color];
+  }
+
+  //Fase do jogo pelas pecas restantes: PieceSquareTables.MAX_PHASE na abertura, 0 so com reis e peoes.
+  public int phase() {
+    return phase;
+  }
+
+  public int kingSquare(int color) {
+    return Bitboards.first(pieces[color * 6 + KING]);
+  }
+
+  public boolean inCheck() {
+    return isAttacked(kingSquare(side), side ^ 1);
+  }
+
+  //Verifica se a casa e atacada por alguma peca da cor informada.
+  public boolean isAttacked(int square, int color) {
+    int base = color * 6;
+    return (Attacks.pawn(color ^ 1, square) & pieces[base + PAWN]) != 0
+        || (Attacks.knight(square) & pieces[base + 1]) != 0
+        || (Attacks.king(square) & pieces[base + KING]) != 0
+        || (Attacks.bishop(square, occupied) & (pieces[base + 2] | pieces[base + 4])) != 0
+        || (Attacks.rook(square, occupied) & (pieces[base + 3] | pieces[base + 4])) != 0;
+  }
+
+  /*
+    make
+      Aplica o movimento (que deve ter sido gerado para esta posicao) e guarda
+        o estado anterior para o unmake. A chave Zobrist e atualizada incrementalmente.
+   */
+  public void make(int move) {
+    if (ply == undoKey.length) {
+      grow();
+    }
+    int from = Move.from(move);
+    int to = Move.to(move);
+    int piece = board[from];
+    int us = side;
+    undoCastling[ply] = castling;
+    undoEnPassant[ply] = enPassantSquare;
+    undoHalfmove[ply] = halfmoveClock;
+    undoKey[ply] = key;
+    key ^= enPassantHash();
+
+    int captured = EMPTY;
+    if ((move & Move.EN_PASSANT) != 0) {
+      int square = to + (us == WHITE ? 8 : -8);
+      captured = board[square];
+      remove(square);
+      key ^= Zobrist.piece(captured, square);
+    } else if (board[to] != EMPTY) {
+      captured = board[to];
+      remove(to);
+      key ^= Zobrist.piece(captured, to);
+    }
+    undoCaptured[ply] = captured;
+
+    remove(from);
+    int promotion = Move.promotion(move);
+    int placed = promotion != 0 ? us * 6 + promotion : piece;
+    put(placed, to);
+    key ^= Zobrist.piece(piece, from) ^ Zobrist.piece(placed, to);
+
+    //#specialmove castling: a torre vai para a casa que o rei atravessou
+    if ((move & Move.CASTLING) != 0) {
+      int rookFrom = to > from ? to + 1 : to - 2;
+      int rookTo = (from + to) / 2;
+      int rook = board[rookFrom];
+      remove(rookFrom);
+      put(rook, rookTo);
+      key ^= Zobrist.piece(rook, rookFrom) ^ Zobrist.piece(rook, rookTo);
+    }
+
+    key ^= Zobrist.castling(castling);
+    castling &= CASTLING_MASK[from] & CASTLING_MASK[to];
+    key ^= Zobrist.castling(castling);
+
+    enPassantSquare = (move & Move.DOUBLE_PUSH) != 0 ? (from + to) / 2 : -1;
+    halfmoveClock = (piece % 6 == PAWN || captured != EMPTY) ? 0 : halfmoveClock + 1;
+    side = us ^ 1;
+    key ^= Zobrist.side();
+    key ^= enPassantHash();
+    ply++;
+  }
+
+  //Desfaz o ultimo make feito com este movimento.
+  public void unmake(int move) {
+    ply--;
+    side ^= 1;
+    int us = side;
+    int from = Move.from(move);
+    int to = Move.to(move);
+
+    int placed = board[to];
+    remove(to);
+    put(Move.promotion(move) != 0 ? us * 6 + PAWN : placed, from);
+
+    if ((move & Move.CASTLING) != 0) {
+      int rookFrom = to > from ? to + 1 : to - 2;
+      int rookTo = (from + to) / 2;
+      int rook = board[rookTo];
+      remove(rookTo);
+      put(rook, rookFrom);
+    }
+
+    int captured = undoCaptured[ply];
+    if (captured != EMPTY) {
+      put(captured, (move & Move.EN_PASSANT) != 0 ? to + (us == WHITE ? 8 : -8) : to);
+    }
+
+    castling = undoCastling[ply];
+    enPassantSquare = undoEnPassant[ply];
+    halfmoveClock = undoHalfmove[ply];
+    key = undoKey[ply];
+  }
+
+  /*
+    isRepetition
+      Verifica se a posicao atual ja ocorreu desde o ultimo movimento irreversivel
+        (captura ou movimento de peao), comparando as chaves guardadas na pilha do make.
+   */
+  public boolean isRepetition() {
+    for (int i = ply - 4; i >= 0 && i >= ply - halfmoveClock; i -= 2) {
+      if (undoKey[i] == key) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  //Peca capturada pelo ultimo make (EMPTY se nao houve captura).
+  public int lastCaptured() {
+    return undoCaptured[ply - 1];
+  }
+
+  private void put(int piece, int square) {
+    long bit = Bitboards.bit(square);
+    pieces[piece] |= bit;
+    occupancy[piece / 6] |= bit;
+    occupied |= bit;
+    board[square] = piece;
+    if (piece % 6 == PAWN) {
+      pawnKey ^= Zobrist.piece(piece, square);
+    }
+    midgame[piece / 6] += PieceSquareTables.midgame(piece, square);
+    endgame[piece / 6] += PieceSquareTables.endgame(piece, square);
+    phase += PieceSquareTables.phase(piece);
+  }
+
+  private void remove(int square) {
+    int piece = board[square];
+    long bit = Bitboards.bit(square);
+    pieces[piece] &= ~bit;
+    occupancy[piece / 6] &= ~bit;
+    occupied &= ~bit;
+    board[square] = EMPTY;
+    if (piece % 6 == PAWN) {
+      pawnKey ^= Zobrist.piece(piece, square);
+    }
+    midgame[piece / 6] -= PieceSquareTables.midgame(piece, square);
+    endgame[piece / 6] -= PieceSquareTables.endgame(piece, square);
+    phase -= PieceSquareTables.phase(piece);
+  }
+
+  /*
+    enPassantHash
+      Mesma regra de ChessMatch: a coluna de en passant so entra na chave se algum
+        peao do jogador da vez estiver ao lado do peao que avancou duas casas.
+   */
+  private long enPassantHash() {
+    if (enPassantSquare < 0) {
+      return 0L;
+    }
+    int pawnSquare = enPassantSquare + (side == WHITE ? 8 : -8);
+    long bit = Bitboards.bit(pawnSquare);
+    long neighbours = (bit << 1 & ~Bitboards.FILE_A) | (bit >>> 1 & ~Bitboards.FILE_H);
+    if ((neighbours & pieces[side * 6 + PAWN]) == 0) {
+      return 0L;
+    }
+    return Zobrist.enPassant(Bitboards.column(enPassantSquare));
+  }
+
+  private long computeKey() {
+    long k = 0;
+    for (int square = 0; square < 64; square++) {
+      if (board[square] != EMPTY) {
+        k ^= Zobrist.piece(board[square], square);
+      }
+    }
+    k ^= Zobrist.castling(castling);
+    if (side == BLACK) {
+      k ^= Zobrist.side();
+    }
+    return k ^ enPassantHash();
+  }
+
+  private void grow() {
+    int n = undoKey.length * 2;
+    undoCaptured = Arrays.copyOf(undoCaptured, n);
+    undoCastling = Arrays.copyOf(undoCastling, n);
+    undoEnPassant = Arrays.copyOf(undoEnPassant, n);
+    undoHalfmove = Arrays.copyOf(undoHalfmove, n);
+    undoKey = Arrays.copyOf(undoKey, n);
+  }
+}
@@ -0,0 +1,42 @@
+package chess.bitboard;
+
+/*
+  Bitboards
+    Cada casa do tabuleiro corresponde a um bit de um long.
+    O indice da casa segue a mesma orientacao da matriz do Board:
+      square = row * 8 + column (a8 = 0, h8 = 7, a1 = 56, h1 = 63).
+ */
+public final class Bitboards {
+  public static final long FILE_A = 0x0101010101010101L;
+  public static final long FILE_H = FILE_A << 7;
+  public static final long RANK_8 = 0xFFL;
+  public static final long RANK_1 = RANK_8 << 56;
+
+  private Bitboards() {
+  }
+
+  public static int square(int row, int column) {
+    return row << 3 | column;
+  }
+
+  public static int row(int square) {
+    return square >>> 3;
+  }
+
+  public static int column(int square) {
+    return square & 7;
+  }
+
+  public static long bit(int square) {
+    return 1L << square;
+  }
+
+  //Retorna o indice da casa ocupada de menor valor e ignora as demais.
+  public static int first(long bitboard) {
+    return Long.numberOfTrailingZeros(bitboard);
+  }
+
+  public static int count(long bitboard) {
+    return Long.bitCount(bitboard);
+  }
+}
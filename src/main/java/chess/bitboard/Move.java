@@ -0,0 +1,85 @@
+package chess.bitboard;
+
+/*
+  Move
+    Um movimento compactado em um int, para que listas de movimentos nao alocam objetos:
+      bits  0-5  casa de origem
+      bits  6-11 casa de destino
+      bits 12-14 peca da promocao (ordinal de PieceType, 0 = sem promocao)
+      bits 15-18 flags (captura, avanco duplo, en passant, roque)
+    O valor 0 (a8 -> a8) nunca e um movimento valido e representa "nenhum movimento".
+ */
+public final class Move {
+  public static final int NONE = 0;
+
+  public static final int CAPTURE = 1 << 15;
+  public static final int DOUBLE_PUSH = 1 << 16;
+  public static final int EN_PASSANT = 1 << 17;
+  public static final int CASTLING = 1 << 18;
+
+  private Move() {
+  }
+
+  public static int of(int from, int to, int flags) {
+    return from | to << 6 | flags;
+  }
+
+  public static int of(int from, int to, int flags, int promotion) {
+    return from | to << 6 | promotion << 12 | flags;
+  }
+
+  public static int from(int move) {
+    return move & 63;
+  }
+
+  public static int to(int move) {
+    return (move >>> 6) & 63;
+  }
+
+  public static int promotion(int move) {
+    return (move >>> 12) & 7;
+  }
+
+  public static boolean isCapture(int move) {
+    return (move & (CAPTURE | EN_PASSANT)) != 0;
+  }
+
+  public static String squareName(int square) {
+    return "" + (char) ('a' + Bitboards.column(square)) + (8 - Bitboards.row(square));
+  }
+
+  /*
+    parse
+      Le a notacao de coordenadas ("e2e4", "e7e8q") como origem, destino e promocao,
+        sem as flags (ChessMatch.performChessMove so usa esses campos).
+      Retorna NONE se o texto nao estiver nesse formato.
+   */
+  public static int parse(String text) {
+    if (text.length() < 4 || text.length() > 5) {
+      return NONE;
+    }
+    int from = parseSquare(text.charAt(0), text.charAt(1));
+    int to = parseSquare(text.charAt(2), text.charAt(3));
+    int promotion = text.length() == 5 ? "pnbrq".indexOf(Character.toLowerCase(text.charAt(4))) : 0;
+    if (from < 0 || to < 0 || promotion < 0 || text.length() == 5 && promotion == 0 || from == to) {
+      return NONE;
+    }
+    return of(from, to, 0, promotion);
+  }
+
+  private static int parseSquare(char file, char rank) {
+    if (file < 'a' || file > 'h' || rank < '1' || rank > '8') {
+      return -1;
+    }
+    return Bitboards.square('8' - rank, file - 'a');
+  }
+
+  //Notacao de coordenadas: "e2e4", "e7e8q".
+  public static String toString(int move) {
+    String s = squareName(from(move)) + squareName(to(move));
+    if (promotion(move) != 0) {
+      s += "pnbrqk".charAt(promotion(move));
+    }
+    return s;
+  }
+}
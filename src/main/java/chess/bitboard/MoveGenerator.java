@@ -0,0 +1,300 @@
+package chess.bitboard;
+
+import chess.PieceType;
+
+/*
+  MoveGenerator
+    Escreve os movimentos de uma BitPosition em um MoveList, sem alocar memoria.
+    generate produz os movimentos pseudo-legais (podem deixar o proprio rei em check);
+      generateLegal filtra esses movimentos com make/unmake.
+    Com tacticalOnly apenas capturas e promocoes sao geradas; generateQuiets gera o
+      complemento (movimentos sem captura nem promocao, inclusive roque), para que o
+      MovePicker da busca gere cada grupo so quando precisar dele.
+ */
+public final class MoveGenerator {
+  private static final int ALL = 0;
+  private static final int TACTICAL = 1;
+  private static final int QUIET = 2;
+
+  private static final int PAWN = PieceType.PAWN.ordinal();
+  private static final int KNIGHT = PieceType.KNIGHT.ordinal();
+  private static final int BISHOP = PieceType.BISHOP.ordinal();
+  private static final int ROOK = PieceType.ROOK.ordinal();
+  private static final int QUEEN = PieceType.QUEEN.ordinal();
+  private static final int KING = PieceType.KING.ordinal();
+
+  private MoveGenerator() {
+  }
+
+  public static void generateLegal(BitPosition position, MoveList moves) {
+    generate(position, moves, false);
+    filterLegal(position, moves);
+  }
+
+  public static void generateLegalTactical(BitPosition position, MoveList moves) {
+    generate(position, moves, true);
+    filterLegal(position, moves);
+  }
+
+  /*
+    filterLegal
+      Mantem na lista apenas os movimentos que nao deixam o proprio rei atacado.
+      Fora de check, um movimento que nao e do rei, nao e en passant e nao sai de uma
+        peca cravada nao pode expor o rei: so os outros passam pelo make/unmake.
+   */
+  public static void filterLegal(BitPosition position, MoveList moves) {
+    int us = position.sideToMove();
+    int king = position.kingSquare(us);
+    long suspects = position.inCheck() ? ~0L : pinned(position, us, king) | Bitboards.bit(king);
+    int n = 0;
+    for (int i = 0; i < moves.size(); i++) {
+      int move = moves.get(i);
+      boolean safe = (suspects & Bitboards.bit(Move.from(move))) == 0 && (move & Move.EN_PASSANT) == 0;
+      if (safe || isLegal(position, move, us)) {
+        moves.set(n++, move);
+      }
+    }
+    moves.truncate(n);
+  }
+
+  /*
+    pinned
+      Pecas da cor us cravadas contra o proprio rei: a unica peca entre o rei e uma
+        torre, bispo ou dama adversaria alinhada com ele.
+      As casas entre o rei e a peca alinhada sao a intersecao dos ataques de um para
+        o outro com so os dois no tabuleiro.
+   */
+  public static long pinned(BitPosition position, int us, int king) {
+    int base = (us ^ 1) * 6;
+    long queens = position.pieces(base + QUEEN);
+    long occupied = position.occupied();
+    long pinned = 0L;
+    long snipers = Attacks.rook(king, 0L) & (position.pieces(base + ROOK) | queens);
+    for (; snipers != 0; snipers &= snipers - 1) {
+      int sniper = Bitboards.first(snipers);
+      long between = Attacks.rook(king, Bitboards.bit(sniper)) & Attacks.rook(sniper, Bitboards.bit(king)) & occupied;
+      if (Bitboards.count(between) == 1) {
+        pinned |= between;
+      }
+    }
+    snipers = Attacks.bishop(king, 0L) & (position.pieces(base + BISHOP) | queens);
+    for (; snipers != 0; snipers &= snipers - 1) {
+      int sniper = Bitboards.first(snipers);
+      long between = Attacks.bishop(king, Bitboards.bit(sniper)) & Attacks.bishop(sniper, Bitboards.bit(king)) & occupied;
+      if (Bitboards.count(between) == 1) {
+        pinned |= between;
+      }
+    }
+    return pinned & position.occupancy(us);
+  }
+
+  public static boolean isLegal(BitPosition position, int move, int us) {
+    position.make(move);
+    boolean legal = !position.isAttacked(position.kingSquare(us), us ^ 1);
+    position.unmake(move);
+    return legal;
+  }
+
+  public static void generate(BitPosition position, MoveList moves, boolean tacticalOnly) {
+    generate(position, moves, tacticalOnly ? TACTICAL : ALL);
+  }
+
+  public static void generateQuiets(BitPosition position, MoveList moves) {
+    generate(position, moves, QUIET);
+  }
+
+  private static void generate(BitPosition position, MoveList moves, int mode) {
+    moves.clear();
+    int us = position.sideToMove();
+    int them = us ^ 1;
+    long own = position.occupancy(us);
+    long enemy = position.occupancy(them);
+    long occupied = position.occupied();
+    long targets = mode == TACTICAL ? enemy : mode == QUIET ? ~occupied : ~own;
+
+    generatePawnMoves(position, moves, us, enemy, occupied, mode);
+
+    int base = us * 6;
+    for (long b = position.pieces(base + KNIGHT); b != 0; b &= b - 1) {
+      int from = Bitboards.first(b);
+      addMoves(moves, from, Attacks.knight(from) & targets, enemy);
+    }
+    for (long b = position.pieces(base + BISHOP); b != 0; b &= b - 1) {
+      int from = Bitboards.first(b);
+      addMoves(moves, from, Attacks.bishop(from, occupied) & targets, enemy);
+    }
+    for (long b = position.pieces(base + ROOK); b != 0; b &= b - 1) {
+      int from = Bitboards.first(b);
+      addMoves(moves, from, Attacks.rook(from, occupied) & targets, enemy);
+    }
+    for (long b = position.pieces(base + QUEEN); b != 0; b &= b - 1) {
+      int from = Bitboards.first(b);
+      addMoves(moves, from, Attacks.queen(from, occupied) & targets, enemy);
+    }
+    int king = position.kingSquare(us);
+    addMoves(moves, king, Attacks.king(king) & targets, enemy);
+
+    if (mode != TACTICAL) {
+      generateCastling(position, moves, us, occupied);
+    }
+  }
+
+  private static void addMoves(MoveList moves, int from, long targets, long enemy) {
+    for (; targets != 0; targets &= targets - 1) {
+      int to = Bitboards.first(targets);
+      moves.add(Move.of(from, to, (enemy & Bitboards.bit(to)) != 0 ? Move.CAPTURE : 0));
+    }
+  }
+
+  private static void generatePawnMoves(BitPosition position, MoveList moves, int us, long enemy, long occupied, int mode) {
+    long pawns = position.pieces(us * 6);
+    int forward = us == BitPosition.WHITE ? -8 : 8;
+    int startRow = us == BitPosition.WHITE ? 6 : 1;
+    int lastRow = us == BitPosition.WHITE ? 0 : 7;
+    int ep = position.enPassantSquare();
+
+    for (long b = pawns; b != 0; b &= b - 1) {
+      int from = Bitboards.first(b);
+      int to = from + forward;
+      boolean promotion = Bitboards.row(to) == lastRow;
+
+      if ((occupied & Bitboards.bit(to)) == 0) {
+        if (promotion) {
+          if (mode != QUIET) {
+            addPromotions(moves, from, to, 0);
+          }
+        } else if (mode != TACTICAL) {
+          moves.add(Move.of(from, to, 0));
+          int to2 = to + forward;
+          if (Bitboards.row(from) == startRow && (occupied & Bitboards.bit(to2)) == 0) {
+            moves.add(Move.of(from, to2, Move.DOUBLE_PUSH));
+          }
+        }
+      }
+
+      if (mode == QUIET) {
+        continue;
+      }
+      long attacks = Attacks.pawn(us, from);
+      for (long captures = attacks & enemy; captures != 0; captures &= captures - 1) {
+        int target = Bitboards.first(captures);
+        if (promotion) {
+          addPromotions(moves, from, target, Move.CAPTURE);
+        } else {
+          moves.add(Move.of(from, target, Move.CAPTURE));
+        }
+      }
+
+      //#specialmove en passant
+      if (ep >= 0 && (attacks & Bitboards.bit(ep)) != 0) {
+        moves.add(Move.of(from, ep, Move.EN_PASSANT));
+      }
+    }
+  }
+
+  private static void addPromotions(MoveList moves, int from, int to, int flags) {
+    moves.add(Move.of(from, to, flags, QUEEN));
+    moves.add(Move.of(from, to, flags, ROOK));
+    moves.add(Move.of(from, to, flags, BISHOP));
+    moves.add(Move.of(from, to, flags, KNIGHT));
+  }
+
+  /*
+    #specialmove castling
+      Rei e torre nas casas iniciais (direito de roque), casas entre eles vazias,
+        rei fora de check e sem passar por casa atacada.
+      A casa de chegada e conferida pelo filtro de legalidade.
+   */
+  private static void generateCastling(BitPosition position, MoveList moves, int us, long occupied) {
+    int king = us == BitPosition.WHITE ? 60 : 4;
+    if (canCastle(position, us, occupied, true)) {
+      moves.add(Move.of(king, king + 2, Move.CASTLING));
+    }
+    if (canCastle(position, us, occupied, false)) {
+      moves.add(Move.of(king, king - 2, Move.CASTLING));
+    }
+  }
+
+  private static boolean canCastle(BitPosition position, int us, long occupied, boolean kingside) {
+    int them = us ^ 1;
+    int king = us == BitPosition.WHITE ? 60 : 4;
+    int right = kingside
+        ? (us == BitPosition.WHITE ? Zobrist.WHITE_KINGSIDE : Zobrist.BLACK_KINGSIDE)
+        : (us == BitPosition.WHITE ? Zobrist.WHITE_QUEENSIDE : Zobrist.BLACK_QUEENSIDE);
+    if ((position.castlingRights() & right) == 0) {
+      return false;
+    }
+    long between = kingside
+        ? Bitboards.bit(king + 1) | Bitboards.bit(king + 2)
+        : Bitboards.bit(king - 1) | Bitboards.bit(king - 2) | Bitboards.bit(king - 3);
+    return (occupied & between) == 0
+        && !position.isAttacked(king, them)
+        && !position.isAttacked(kingside ? king + 1 : king - 1, them);
+  }
+
+  /*
+    isPseudoLegal
+      Verifica, sem gerar a lista, se o movimento seria produzido por generate nesta posicao.
+      Usado para lances que vem de fora do gerador (tabela de transposicao, killers),
+        que podem ter sido gravados em outra posicao.
+   */
+  public static boolean isPseudoLegal(BitPosition position, int move) {
+    if (move == Move.NONE) {
+      return false;
+    }
+    int us = position.sideToMove();
+    int from = Move.from(move);
+    int to = Move.to(move);
+    int piece = position.pieceAt(from);
+    if (piece == BitPosition.EMPTY || piece / 6 != us) {
+      return false;
+    }
+    int target = position.pieceAt(to);
+    if (target != BitPosition.EMPTY && target / 6 == us) {
+      return false;
+    }
+    long occupied = position.occupied();
+    long toBit = Bitboards.bit(to);
+    int type = piece % 6;
+
+    if ((move & Move.CASTLING) != 0) {
+      return type == KING && move == Move.of(from, to, Move.CASTLING)
+          && from == (us == BitPosition.WHITE ? 60 : 4) && Math.abs(to - from) == 2
+          && canCastle(position, us, occupied, to > from);
+    }
+    if ((move & Move.EN_PASSANT) != 0) {
+      return type == PAWN && move == Move.of(from, to, Move.EN_PASSANT)
+          && to == position.enPassantSquare() && (Attacks.pawn(us, from) & toBit) != 0;
+    }
+    if (((move & Move.CAPTURE) != 0) != (target != BitPosition.EMPTY)) {
+      return false;
+    }
+
+    if (type == PAWN) {
+      boolean lastRow = Bitboards.row(to) == (us == BitPosition.WHITE ? 0 : 7);
+      if ((Move.promotion(move) != 0) != lastRow) {
+        return false;
+      }
+      int forward = us == BitPosition.WHITE ? -8 : 8;
+      if (target != BitPosition.EMPTY) {
+        return (move & Move.DOUBLE_PUSH) == 0 && (Attacks.pawn(us, from) & toBit) != 0;
+      }
+      if ((move & Move.DOUBLE_PUSH) != 0) {
+        return to == from + 2 * forward && Bitboards.row(from) == (us == BitPosition.WHITE ? 6 : 1)
+            && (occupied & (Bitboards.bit(from + forward) | toBit)) == 0;
+      }
+      return to == from + forward;
+    }
+
+    if (Move.promotion(move) != 0 || (move & Move.DOUBLE_PUSH) != 0) {
+      return false;
+    }
+    long attacks;
+    if (type == KNIGHT) attacks = Attacks.knight(from);
+    else if (type == BISHOP) attacks = Attacks.bishop(from, occupied);
+    else if (type == ROOK) attacks = Attacks.rook(from, occupied);
+    else if (type == QUEEN) attacks = Attacks.queen(from, occupied);
+    else attacks = Attacks.king(from);
+    return (attacks & toBit) != 0;
+  }
+}
@@ -0,0 +1,48 @@
+package chess.bitboard;
+
+/*
+  MoveList
+    Buffer reutilizavel de movimentos compactados (ver Move).
+    O gerador escreve aqui sem alocar; o chamador limpa e reaproveita o mesmo buffer.
+ */
+public final class MoveList {
+  //Nenhuma posicao legal tem mais que 218 movimentos.
+  public static final int CAPACITY = 256;
+
+  private final int[] moves = new int[CAPACITY];
+  private int size;
+
+  public void add(int move) {
+    moves[size++] = move;
+  }
+
+  public int get(int index) {
+    return moves[index];
+  }
+
+  public void set(int index, int move) {
+    moves[index] = move;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public void clear() {
+    size = 0;
+  }
+
+  //Reduz a lista para os primeiros n movimentos.
+  public void truncate(int n) {
+    size = n;
+  }
+
+  public boolean contains(int move) {
+    for (int i = 0; i < size; i++) {
+      if (moves[i] == move) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
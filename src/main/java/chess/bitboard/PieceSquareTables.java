@@ -0,0 +1,143 @@
+package chess.bitboard;
+
+/*
+  PieceSquareTables
+    Valor de cada peca em cada casa (material + bonus de posicao), separado em
+      meio-jogo e final, e o peso de cada peca na fase do jogo.
+    As tabelas abaixo estao do ponto de vista das brancas, com a fileira 8 na primeira
+      linha (mesma ordem das casas do tabuleiro); para as pretas a casa e espelhada (sq ^ 56).
+    BitPosition soma esses valores a cada peca colocada ou retirada, entao a avaliacao
+      nao precisa percorrer o tabuleiro.
+ */
+public final class PieceSquareTables {
+  //Fase maxima: todas as pecas menores, torres e damas no tabuleiro.
+  public static final int MAX_PHASE = 24;
+
+  private static final int[] MIDGAME_MATERIAL = {82, 337, 365, 477, 1025, 0};
+  private static final int[] ENDGAME_MATERIAL = {94, 281, 297, 512, 936, 0};
+  private static final int[] PHASE = {0, 1, 1, 2, 4, 0};
+
+  private static final int[] PAWN_MIDGAME = {
+      0, 0, 0, 0, 0, 0, 0, 0,
+      50, 50, 50, 50, 50, 50, 50, 50,
+      10, 10, 20, 30, 30, 20, 10, 10,
+      5, 5, 10, 25, 25, 10, 5, 5,
+      0, 0, 0, 20, 20, 0, 0, 0,
+      5, -5, -10, 0, 0, -10, -5, 5,
+      5, 10, 10, -20, -20, 10, 10, 5,
+      0, 0, 0, 0, 0, 0, 0, 0,
+  };
+
+  private static final int[] PAWN_ENDGAME = {
+      0, 0, 0, 0, 0, 0, 0, 0,
+      80, 80, 80, 80, 80, 80, 80, 80,
+      50, 50, 50, 50, 50, 50, 50, 50,
+      30, 30, 30, 30, 30, 30, 30, 30,
+      15, 15, 15, 15, 15, 15, 15, 15,
+      5, 5, 5, 5, 5, 5, 5, 5,
+      0, 0, 0, 0, 0, 0, 0, 0,
+      0, 0, 0, 0, 0, 0, 0, 0,
+  };
+
+  private static final int[] KNIGHT = {
+      -50, -40, -30, -30, -30, -30, -40, -50,
+      -40, -20, 0, 0, 0, 0, -20, -40,
+      -30, 0, 10, 15, 15, 10, 0, -30,
+      -30, 5, 15, 20, 20, 15, 5, -30,
+      -30, 0, 15, 20, 20, 15, 0, -30,
+      -30, 5, 10, 15, 15, 10, 5, -30,
+      -40, -20, 0, 5, 5, 0, -20, -40,
+      -50, -40, -30, -30, -30, -30, -40, -50,
+  };
+
+  private static final int[] BISHOP = {
+      -20, -10, -10, -10, -10, -10, -10, -20,
+      -10, 0, 0, 0, 0, 0, 0, -10,
+      -10, 0, 5, 10, 10, 5, 0, -10,
+      -10, 5, 5, 10, 10, 5, 5, -10,
+      -10, 0, 10, 10, 10, 10, 0, -10,
+      -10, 10, 10, 10, 10, 10, 10, -10,
+      -10, 5, 0, 0, 0, 0, 5, -10,
+      -20, -10, -10, -10, -10, -10, -10, -20,
+  };
+
+  private static final int[] ROOK_MIDGAME = {
+      0, 0, 0, 0, 0, 0, 0, 0,
+      5, 10, 10, 10, 10, 10, 10, 5,
+      -5, 0, 0, 0, 0, 0, 0, -5,
+      -5, 0, 0, 0, 0, 0, 0, -5,
+      -5, 0, 0, 0, 0, 0, 0, -5,
+      -5, 0, 0, 0, 0, 0, 0, -5,
+      -5, 0, 0, 0, 0, 0, 0, -5,
+      0, 0, 0, 5, 5, 0, 0, 0,
+  };
+
+  private static final int[] ROOK_ENDGAME = new int[64];
+
+  private static final int[] QUEEN = {
+      -20, -10, -10, -5, -5, -10, -10, -20,
+      -10, 0, 0, 0, 0, 0, 0, -10,
+      -10, 0, 5, 5, 5, 5, 0, -10,
+      -5, 0, 5, 5, 5, 5, 0, -5,
+      0, 0, 5, 5, 5, 5, 0, -5,
+      -10, 5, 5, 5, 5, 5, 0, -10,
+      -10, 0, 5, 0, 0, 0, 0, -10,
+      -20, -10, -10, -5, -5, -10, -10, -20,
+  };
+
+  private static final int[] KING_MIDGAME = {
+      -30, -40, -40, -50, -50, -40, -40, -30,
+      -30, -40, -40, -50, -50, -40, -40, -30,
+      -30, -40, -40, -50, -50, -40, -40, -30,
+      -30, -40, -40, -50, -50, -40, -40, -30,
+      -20, -30, -30, -40, -40, -30, -30, -20,
+      -10, -20, -20, -20, -20, -20, -20, -10,
+      20, 20, 0, 0, 0, 0, 20, 20,
+      20, 30, 10, 0, 0, 10, 30, 20,
+  };
+
+  private static final int[] KING_ENDGAME = {
+      -50, -40, -30, -20, -20, -30, -40, -50,
+      -30, -20, -10, 0, 0, -10, -20, -30,
+      -30, -10, 20, 30, 30, 20, -10, -30,
+      -30, -10, 30, 40, 40, 30, -10, -30,
+      -30, -10, 30, 40, 40, 30, -10, -30,
+      -30, -10, 20, 30, 30, 20, -10, -30,
+      -30, -30, 0, 0, 0, 0, -30, -30,
+      -50, -30, -30, -30, -30, -30, -30, -50,
+  };
+
+  private static final int[][] MIDGAME_TABLES = {PAWN_MIDGAME, KNIGHT, BISHOP, ROOK_MIDGAME, QUEEN, KING_MIDGAME};
+  private static final int[][] ENDGAME_TABLES = {PAWN_ENDGAME, KNIGHT, BISHOP, ROOK_ENDGAME, QUEEN, KING_ENDGAME};
+
+  //Indexados por peca (cor * 6 + tipo) * 64 + casa.
+  private static final int[] MIDGAME = new int[12 * 64];
+  private static final int[] ENDGAME = new int[12 * 64];
+
+  static {
+    for (int piece = 0; piece < 12; piece++) {
+      int type = piece % 6;
+      boolean white = piece / 6 == BitPosition.WHITE;
+      for (int sq = 0; sq < 64; sq++) {
+        int s = white ? sq : sq ^ 56;
+        MIDGAME[piece * 64 + sq] = MIDGAME_MATERIAL[type] + MIDGAME_TABLES[type][s];
+        ENDGAME[piece * 64 + sq] = ENDGAME_MATERIAL[type] + ENDGAME_TABLES[type][s];
+      }
+    }
+  }
+
+  private PieceSquareTables() {
+  }
+
+  public static int midgame(int piece, int square) {
+    return MIDGAME[piece * 64 + square];
+  }
+
+  public static int endgame(int piece, int square) {
+    return ENDGAME[piece * 64 + square];
+  }
+
+  public static int phase(int piece) {
+    return PHASE[piece % 6];
+  }
+}
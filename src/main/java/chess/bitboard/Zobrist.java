@@ -0,0 +1,65 @@
+package chess.bitboard;
+
+/*
+  Zobrist
+    Numeros aleatorios de 64 bits usados para identificar uma posicao.
+    A chave de uma posicao e o XOR das chaves de cada peca em sua casa, dos
+      direitos de roque, da coluna de en passant e do lado que joga.
+    A semente e fixa para que a mesma posicao tenha a mesma chave em qualquer execucao.
+ */
+public final class Zobrist {
+  public static final int WHITE_KINGSIDE = 1;
+  public static final int WHITE_QUEENSIDE = 2;
+  public static final int BLACK_KINGSIDE = 4;
+  public static final int BLACK_QUEENSIDE = 8;
+
+  private static final long[][] PIECES = new long[12][64];
+  private static final long[] CASTLING = new long[16];
+  private static final long[] EN_PASSANT = new long[8];
+  private static final long SIDE;
+
+  private static long seed = 0x2545F4914F6CDD1DL;
+
+  static {
+    for (int i = 0; i < 12; i++) {
+      for (int sq = 0; sq < 64; sq++) {
+        PIECES[i][sq] = next();
+      }
+    }
+    for (int i = 1; i < 16; i++) {
+      CASTLING[i] = next();
+    }
+    for (int i = 0; i < 8; i++) {
+      EN_PASSANT[i] = next();
+    }
+    SIDE = next();
+  }
+
+  private Zobrist() {
+  }
+
+  //splitmix64
+  private static long next() {
+    long z = (seed += 0x9E3779B97F4A7C15L);
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  }
+
+  public static long piece(int index, int square) {
+    return PIECES[index][square];
+  }
+
+  public static long castling(int rights) {
+    return CASTLING[rights];
+  }
+
+  public static long enPassant(int column) {
+    return EN_PASSANT[column];
+  }
+
+  //Aplicada quando as pretas estao para jogar.
+  public static long side() {
+    return SIDE;
+  }
+}
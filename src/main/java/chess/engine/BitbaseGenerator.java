@@ -0,0 +1,218 @@
+package chess.engine;
+
+import chess.PieceType;
+import chess.bitboard.Attacks;
+import chess.bitboard.BitPosition;
+import chess.bitboard.Bitboards;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+/*
+  BitbaseGenerator
+    Gera por analise retrograda as tabelas de vitoria/empate dos finais de rei e uma peca
+      contra rei (KPK, KRK, KQK). O lado forte e sempre tratado como branco; Bitbases
+      espelha as posicoes em que o lado forte e o preto.
+
+    Indice: ((lado da vez * 64 + rei forte) * 64 + rei fraco) * 64 + peca
+      (lado da vez 0 = lado forte, casas no indice do projeto, a8 = 0).
+
+    Analise retrograda
+      Comeca dos resultados imediatos (mate, afogamento, captura da peca, promocao, que
+        consulta KQK/KRK ja gerados) e repete passadas sobre as posicoes ainda sem resultado:
+          lado forte vence se algum lance leva a vitoria;
+          lado fraco perde se todos os lances levam a vitoria do forte.
+        Quando uma passada nao muda nada, o que sobrou e empate.
+      Cada passada divide o indice entre os nucleos (parallel stream). Os resultados so
+        passam de UNKNOWN para WIN, entao ler um valor da passada anterior apenas atrasa
+        a convergencia, nunca produz resultado errado.
+
+    Os lances sao os mesmos das pecas de chess.pieces (via Attacks); so o lado fraco pode
+      ficar sem lances, e as posicoes invalidas (casas repetidas, reis vizinhos, peao na
+      primeira/ultima fileira, lado que nao joga em check) ficam como empate.
+ */
+public final class BitbaseGenerator {
+  public static final int POSITIONS = 2 * 64 * 64 * 64;
+  //Tabelas geradas, na ordem do arquivo (KQK e KRK primeiro: a promocao do KPK depende delas).
+  public static final PieceType[] PIECES = {PieceType.QUEEN, PieceType.ROOK, PieceType.PAWN};
+  public static final byte[] MAGIC = "BITBASE1".getBytes(StandardCharsets.US_ASCII);
+
+  private static final byte UNKNOWN = 0;
+  private static final byte WIN = 1;
+  private static final byte DRAW = 2;
+  private static final byte INVALID = 3;
+
+  private final PieceType piece;
+  private final byte[] result = new byte[POSITIONS];
+  private final byte[] queenTable;
+  private final byte[] rookTable;
+
+  private BitbaseGenerator(PieceType piece, byte[] queenTable, byte[] rookTable) {
+    this.piece = piece;
+    this.queenTable = queenTable;
+    this.rookTable = rookTable;
+  }
+
+  public static int index(int strongToMove, int strongKing, int weakKing, int piece) {
+    return ((strongToMove * 64 + strongKing) * 64 + weakKing) * 64 + piece;
+  }
+
+  /*
+    generateAll
+      Gera as tres tabelas e retorna os bits (1 = vitoria do lado forte), uma por
+        elemento de PIECES, com POSITIONS / 8 bytes cada.
+   */
+  public static byte[][] generateAll() {
+    BitbaseGenerator queen = new BitbaseGenerator(PieceType.QUEEN, null, null);
+    queen.generate();
+    BitbaseGenerator rook = new BitbaseGenerator(PieceType.ROOK, null, null);
+    rook.generate();
+    BitbaseGenerator pawn = new BitbaseGenerator(PieceType.PAWN, queen.result, rook.result);
+    pawn.generate();
+    return new byte[][]{queen.pack(), rook.pack(), pawn.pack()};
+  }
+
+  //Arquivo: MAGIC seguido das tabelas de PIECES, cada uma com POSITIONS / 8 bytes.
+  public static void write(Path file, byte[][] tables) throws IOException {
+    try (OutputStream out = Files.newOutputStream(file)) {
+      out.write(MAGIC);
+      for (byte[] table : tables) {
+        out.write(table);
+      }
+    }
+  }
+
+  private void generate() {
+    IntStream.range(0, POSITIONS).parallel().forEach(i -> result[i] = initial(i));
+    AtomicBoolean changed = new AtomicBoolean(true);
+    while (changed.get()) {
+      changed.set(false);
+      IntStream.range(0, POSITIONS).parallel().forEach(i -> {
+        if (result[i] == UNKNOWN && isWin(i)) {
+          result[i] = WIN;
+          changed.set(true);
+        }
+      });
+    }
+  }
+
+  private byte[] pack() {
+    byte[] bits = new byte[POSITIONS / 8];
+    for (int i = 0; i < POSITIONS; i++) {
+      if (result[i] == WIN) {
+        bits[i >>> 3] |= (byte) (1 << (i & 7));
+      }
+    }
+    return bits;
+  }
+
+  //Resultado que nao depende de outras posicoes (ou UNKNOWN).
+  private byte initial(int index) {
+    int side = index >>> 18;
+    int sk = index >>> 12 & 63;
+    int wk = index >>> 6 & 63;
+    int p = index & 63;
+    if (sk == wk || sk == p || wk == p || (Attacks.king(sk) & Bitboards.bit(wk)) != 0) {
+      return INVALID;
+    }
+    if (piece == PieceType.PAWN && (Bitboards.row(p) == 0 || Bitboards.row(p) == 7)) {
+      return INVALID;
+    }
+    long occupied = Bitboards.bit(sk) | Bitboards.bit(wk) | Bitboards.bit(p);
+    boolean weakInCheck = (pieceAttacks(p, occupied) & Bitboards.bit(wk)) != 0;
+    if (side == 0 && weakInCheck) {
+      return INVALID;
+    }
+    if (side == 1 && weakMoves(sk, wk, p) == 0) {
+      return weakInCheck ? WIN : DRAW;
+    }
+    return UNKNOWN;
+  }
+
+  private boolean isWin(int index) {
+    int sk = index >>> 12 & 63;
+    int wk = index >>> 6 & 63;
+    int p = index & 63;
+    return (index >>> 18) == 0 ? strongWins(sk, wk, p) : weakLoses(sk, wk, p);
+  }
+
+  //Lado forte joga: vence se algum lance leva a uma posicao vencida (lado fraco jogando).
+  private boolean strongWins(int sk, int wk, int p) {
+    long occupied = Bitboards.bit(sk) | Bitboards.bit(wk) | Bitboards.bit(p);
+    for (long b = Attacks.king(sk) & ~occupied & ~Attacks.king(wk); b != 0; b &= b - 1) {
+      if (result[index(1, Bitboards.first(b), wk, p)] == WIN) {
+        return true;
+      }
+    }
+    if (piece == PieceType.PAWN) {
+      int to = p - 8;
+      if ((occupied & Bitboards.bit(to)) != 0) {
+        return false;
+      }
+      if (Bitboards.row(to) == 0) {
+        return promotionWins(sk, wk, to);
+      }
+      if (result[index(1, sk, wk, to)] == WIN) {
+        return true;
+      }
+      int to2 = to - 8;
+      return Bitboards.row(p) == 6 && (occupied & Bitboards.bit(to2)) == 0 && result[index(1, sk, wk, to2)] == WIN;
+    }
+    for (long b = pieceAttacks(p, occupied) & ~occupied; b != 0; b &= b - 1) {
+      if (result[index(1, sk, wk, Bitboards.first(b))] == WIN) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  //Promocao: a dama ou a torre que nascer em "to" vence, segundo KQK/KRK (lado fraco jogando).
+  private boolean promotionWins(int sk, int wk, int to) {
+    int i = index(1, sk, wk, to);
+    return queenTable[i] == WIN || rookTable[i] == WIN;
+  }
+
+  //Lado fraco joga: perde se tem lances e todos levam a vitoria do forte.
+  private boolean weakLoses(int sk, int wk, int p) {
+    long targets = weakTargets(sk, wk, p);
+    if (targets == 0) {
+      return false;
+    }
+    if ((targets & Bitboards.bit(p)) != 0) {
+      return false;
+    }
+    for (long b = targets; b != 0; b &= b - 1) {
+      if (result[index(0, sk, Bitboards.first(b), p)] != WIN) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private int weakMoves(int sk, int wk, int p) {
+    return Bitboards.count(weakTargets(sk, wk, p));
+  }
+
+  /*
+    weakTargets
+      Casas para onde o rei fraco pode ir: fora do alcance do rei forte e da peca
+        (calculado sem o rei fraco na ocupacao, para que ele nao se esconda atras de si mesmo).
+      Capturar a peca e possivel quando ela nao esta defendida pelo rei forte.
+   */
+  private long weakTargets(int sk, int wk, int p) {
+    long occupied = Bitboards.bit(sk) | Bitboards.bit(p);
+    long attacked = Attacks.king(sk) | pieceAttacks(p, occupied);
+    return Attacks.king(wk) & ~attacked & ~Bitboards.bit(sk);
+  }
+
+  private long pieceAttacks(int p, long occupied) {
+    if (piece == PieceType.PAWN) return Attacks.pawn(BitPosition.WHITE, p);
+    if (piece == PieceType.ROOK) return Attacks.rook(p, occupied);
+    return Attacks.queen(p, occupied);
+  }
+}
@@ -0,0 +1,83 @@
+package chess.engine;
+
+import chess.bitboard.BitPosition;
+import chess.bitboard.Bitboards;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/*
+  Bitbases
+    Consulta as tabelas de BitbaseGenerator (KQK, KRK, KPK) mapeadas em memoria:
+      um bit por posicao, 1 = vitoria do lado forte, 0 = empate.
+    Posicoes em que o lado forte e o preto sao espelhadas verticalmente (sq ^ 56),
+      o que troca as cores sem mudar o resultado.
+    A consulta e O(1): algumas operacoes de bits e uma leitura no buffer.
+ */
+public final class Bitbases {
+  public static final int NONE = -2;
+  public static final int LOSS = -1;
+  public static final int DRAW = 0;
+  public static final int WIN = 1;
+
+  private static final int TABLE_SIZE = BitbaseGenerator.POSITIONS / 8;
+
+  private final ByteBuffer buffer;
+
+  private Bitbases(ByteBuffer buffer) {
+    this.buffer = buffer;
+  }
+
+  public static Bitbases load(Path file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      long expected = BitbaseGenerator.MAGIC.length + (long) TABLE_SIZE * BitbaseGenerator.PIECES.length;
+      if (channel.size() != expected) {
+        throw new IOException("Invalid bitbase file size: " + channel.size() + " bytes");
+      }
+      ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, expected);
+      byte[] magic = new byte[BitbaseGenerator.MAGIC.length];
+      buffer.get(0, magic);
+      if (!Arrays.equals(magic, BitbaseGenerator.MAGIC)) {
+        throw new IOException("Not a bitbase file: " + file);
+      }
+      return new Bitbases(buffer);
+    }
+  }
+
+  /*
+    probe
+      Resultado do ponto de vista do lado da vez (WIN, DRAW, LOSS), ou NONE se a
+        posicao nao for rei e uma peca (peao, torre ou dama) contra rei.
+   */
+  public int probe(BitPosition position) {
+    long occupied = position.occupied();
+    if (Bitboards.count(occupied) != 3) {
+      return NONE;
+    }
+    for (int t = 0; t < BitbaseGenerator.PIECES.length; t++) {
+      int type = BitbaseGenerator.PIECES[t].ordinal();
+      for (int strong = 0; strong < 2; strong++) {
+        long piece = position.pieces(strong * 6 + type);
+        if (piece == 0) {
+          continue;
+        }
+        int flip = strong == BitPosition.WHITE ? 0 : 56;
+        int sk = position.kingSquare(strong) ^ flip;
+        int wk = position.kingSquare(strong ^ 1) ^ flip;
+        int p = Bitboards.first(piece) ^ flip;
+        int side = position.sideToMove() == strong ? 0 : 1;
+        int index = BitbaseGenerator.index(side, sk, wk, p);
+        boolean win = (buffer.get(BitbaseGenerator.MAGIC.length + t * TABLE_SIZE + (index >>> 3)) & 1 << (index & 7)) != 0;
+        if (!win) {
+          return DRAW;
+        }
+        return side == 0 ? WIN : LOSS;
+      }
+    }
+    return NONE;
+  }
+}
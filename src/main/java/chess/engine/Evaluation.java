@@ -0,0 +1,46 @@
+package chess.engine;
+
+import chess.ChessMatch;
+import chess.bitboard.BitPosition;
+import chess.bitboard.PieceSquareTables;
+
+/*
+  Evaluation
+    Avaliacao estatica em centipeoes, do ponto de vista do jogador da vez
+      (positivo = bom para quem vai jogar), como a busca negamax espera.
+
+    Avaliacao "tapered": os termos de meio-jogo e de final (material + PieceSquareTables)
+      sao misturados pela fase do jogo, entao a nota muda aos poucos conforme as pecas
+      saem do tabuleiro. Os termos ja vem somados da BitPosition: a avaliacao e O(1).
+
+    A estrutura de peoes (PawnStructure) entra nos dois termos; na busca vem da
+      PawnHashTable da thread, entao so e recalculada quando os peoes mudam.
+ */
+public final class Evaluation {
+  //Valor de cada tipo de peca para SEE e ordenacao, na ordem de PieceType (o rei nao entra no material).
+  public static final int[] PIECE_VALUES = {100, 320, 330, 500, 900, 0};
+
+  private Evaluation() {
+  }
+
+  public static int evaluate(ChessMatch match, PawnHashTable pawns) {
+    return evaluate(match.toBitPosition(), pawns);
+  }
+
+  public static int evaluate(BitPosition position, PawnHashTable pawns) {
+    return evaluate(position, pawns.probe(position));
+  }
+
+  //Sem cache: a estrutura de peoes e calculada a cada chamada.
+  public static int evaluate(BitPosition position) {
+    return evaluate(position, PawnStructure.evaluate(position));
+  }
+
+  private static int evaluate(BitPosition position, int pawnScore) {
+    int mg = position.midgame(BitPosition.WHITE) - position.midgame(BitPosition.BLACK) + PawnStructure.midgame(pawnScore);
+    int eg = position.endgame(BitPosition.WHITE) - position.endgame(BitPosition.BLACK) + PawnStructure.endgame(pawnScore);
+    int phase = Math.min(position.phase(), PieceSquareTables.MAX_PHASE);
+    int score = (mg * phase + eg * (PieceSquareTables.MAX_PHASE - phase)) / PieceSquareTables.MAX_PHASE;
+    return position.sideToMove() == BitPosition.WHITE ? score : -score;
+  }
+}
@@ -0,0 +1,83 @@
+package chess.engine;
+
+import chess.bitboard.Move;
+
+import java.util.Arrays;
+
+/*
+  Heuristics
+    Tabelas de ordenacao dos lances quietos (sem captura nem promocao), uma instancia
+      por thread de busca. Nao sao limpas entre as iteracoes do aprofundamento iterativo:
+      o que uma iteracao aprendeu ordena a seguinte.
+
+    killers   dois lances por ply que causaram corte beta em nos irmaos
+    history   soma de depth * depth dos cortes de cada (cor, origem, destino)
+    counter   lance que refutou o lance anterior (indexado pela origem/destino dele)
+ */
+public final class Heuristics {
+  private static final int HISTORY_MAX = 1 << 20;
+
+  private final int[][] killers = new int[Search.MAX_PLY][2];
+  private final int[][][] history = new int[2][64][64];
+  private final int[][] counter = new int[64][64];
+
+  public int killer(int ply, int slot) {
+    return killers[ply][slot];
+  }
+
+  public int history(int side, int move) {
+    return history[side][Move.from(move)][Move.to(move)];
+  }
+
+  public int counter(int previousMove) {
+    return previousMove == Move.NONE ? Move.NONE : counter[Move.from(previousMove)][Move.to(previousMove)];
+  }
+
+  //Chamado quando um lance quieto causa corte beta.
+  public void update(int side, int move, int depth, int ply, int previousMove) {
+    if (killers[ply][0] != move) {
+      killers[ply][1] = killers[ply][0];
+      killers[ply][0] = move;
+    }
+    int[] h = history[side][Move.from(move)];
+    h[Move.to(move)] += depth * depth;
+    if (h[Move.to(move)] > HISTORY_MAX) {
+      age();
+    }
+    if (previousMove != Move.NONE) {
+      counter[Move.from(previousMove)][Move.to(previousMove)] = move;
+    }
+  }
+
+  //Lance quieto buscado antes do que causou o corte: perde pontos de history.
+  public void penalize(int side, int move, int depth) {
+    int[] h = history[side][Move.from(move)];
+    h[Move.to(move)] = Math.max(0, h[Move.to(move)] - depth * depth);
+  }
+
+  //Reduz a history pela metade (entre buscas, ou quando algum valor fica grande demais).
+  public void age() {
+    for (int[][] side : history) {
+      for (int[] from : side) {
+        for (int to = 0; to < 64; to++) {
+          from[to] >>= 1;
+        }
+      }
+    }
+  }
+
+  public void clear() {
+    for (int[] k : killers) {
+      k[0] = Move.NONE;
+      k[1] = Move.NONE;
+    }
+    for (int[][] side : history) {
+      for (int[] from : side) {
+        Arrays.fill(from, 0);
+      }
+    }
+    for (int[] from : counter) {
+      Arrays.fill(from, Move.NONE);
+    }
+  }
+}
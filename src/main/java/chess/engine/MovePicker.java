@@ -0,0 +1,202 @@
+package chess.engine;
+
+import chess.bitboard.BitPosition;
+import chess.bitboard.Move;
+import chess.bitboard.MoveGenerator;
+import chess.bitboard.MoveList;
+
+/*
+  MovePicker
+    Entrega os lances pseudo-legais de uma posicao em etapas, gerando cada grupo
+      so quando o anterior acabou (um corte beta no lance do hash nem gera a lista):
+        1. lance da tabela de transposicao
+        2. capturas e promocoes, por MVV-LVA (vitima mais valiosa, atacante menos valioso);
+           as que perdem material pela SEE ficam para o final
+        3. killers do ply e o counter move do lance anterior
+        4. lances quietos, pela history
+        5. capturas perdedoras
+    No modo tatico (quiescence) so as etapas 1 e 2 sao usadas e as capturas perdedoras
+      sao descartadas (poda por SEE).
+    Um lance nunca e entregue duas vezes. next retorna Move.NONE quando acabam os lances.
+    A busca guarda um MovePicker por ply, reaproveitado entre os nos.
+ */
+public final class MovePicker {
+  private static final int HASH = 0;
+  private static final int GENERATE_CAPTURES = 1;
+  private static final int CAPTURES = 2;
+  private static final int KILLER_1 = 3;
+  private static final int KILLER_2 = 4;
+  private static final int COUNTER = 5;
+  private static final int GENERATE_QUIETS = 6;
+  private static final int QUIETS = 7;
+  private static final int BAD_CAPTURES = 8;
+  private static final int DONE = 9;
+
+  private final Heuristics heuristics;
+  private final MoveList moves = new MoveList();
+  private final int[] scores = new int[MoveList.CAPACITY];
+  private final int[] badCaptures = new int[MoveList.CAPACITY];
+  private int badCount;
+  private boolean tactical;
+
+  private BitPosition position;
+  private int stage;
+  private int index;
+  private int hashMove;
+  private int killer1;
+  private int killer2;
+  private int counterMove;
+  private int ply;
+  private int previousMove;
+
+  public MovePicker(Heuristics heuristics) {
+    this.heuristics = heuristics;
+  }
+
+  /*
+    init
+      previousMove e o lance que levou a esta posicao (Move.NONE na raiz),
+        usado para buscar o counter move.
+   */
+  public void init(BitPosition position, int hashMove, int ply, int previousMove) {
+    this.position = position;
+    this.hashMove = hashMove;
+    this.ply = ply;
+    this.previousMove = previousMove;
+    killer1 = Move.NONE;
+    killer2 = Move.NONE;
+    counterMove = Move.NONE;
+    badCount = 0;
+    tactical = false;
+    stage = HASH;
+  }
+
+  //Somente capturas e promocoes que nao perdem material (quiescence).
+  public void initTactical(BitPosition position, int hashMove) {
+    init(position, Move.NONE, 0, Move.NONE);
+    tactical = true;
+    if (hashMove != Move.NONE && (Move.isCapture(hashMove) || Move.promotion(hashMove) != 0)) {
+      this.hashMove = hashMove;
+    }
+  }
+
+  public int next() {
+    while (true) {
+      switch (stage) {
+        case HASH:
+          stage = GENERATE_CAPTURES;
+          if (MoveGenerator.isPseudoLegal(position, hashMove) && (!tactical || See.see(position, hashMove, 0))) {
+            return hashMove;
+          }
+          hashMove = Move.NONE;
+          break;
+        case GENERATE_CAPTURES:
+          MoveGenerator.generate(position, moves, true);
+          scoreCaptures();
+          index = 0;
+          stage = CAPTURES;
+          break;
+        case CAPTURES:
+          while (index < moves.size()) {
+            int move = pick(index++);
+            if (move == hashMove) {
+              continue;
+            }
+            if (!See.see(position, move, 0)) {
+              badCaptures[badCount++] = move;
+              continue;
+            }
+            return move;
+          }
+          stage = tactical ? DONE : KILLER_1;
+          break;
+        case KILLER_1:
+          stage = KILLER_2;
+          killer1 = heuristics.killer(ply, 0);
+          if (isNewQuiet(killer1)) {
+            return killer1;
+          }
+          break;
+        case KILLER_2:
+          stage = COUNTER;
+          killer2 = heuristics.killer(ply, 1);
+          if (killer2 != killer1 && isNewQuiet(killer2)) {
+            return killer2;
+          }
+          break;
+        case COUNTER:
+          stage = GENERATE_QUIETS;
+          counterMove = heuristics.counter(previousMove);
+          if (counterMove != killer1 && counterMove != killer2 && isNewQuiet(counterMove)) {
+            return counterMove;
+          }
+          break;
+        case GENERATE_QUIETS:
+          MoveGenerator.generateQuiets(position, moves);
+          int side = position.sideToMove();
+          for (int i = 0; i < moves.size(); i++) {
+            scores[i] = heuristics.history(side, moves.get(i));
+          }
+          index = 0;
+          stage = QUIETS;
+          break;
+        case QUIETS:
+          while (index < moves.size()) {
+            int move = pick(index++);
+            if (move != hashMove && move != killer1 && move != killer2 && move != counterMove) {
+              return move;
+            }
+          }
+          index = 0;
+          stage = BAD_CAPTURES;
+          break;
+        case BAD_CAPTURES:
+          if (index < badCount) {
+            return badCaptures[index++];
+          }
+          stage = DONE;
+          break;
+        default:
+          return Move.NONE;
+      }
+    }
+  }
+
+  //Killers e counter moves foram gravados em outras posicoes: so valem se ainda forem lances quietos aqui.
+  private boolean isNewQuiet(int move) {
+    return move != Move.NONE && move != hashMove && !Move.isCapture(move) && Move.promotion(move) == 0
+        && MoveGenerator.isPseudoLegal(position, move);
+  }
+
+  private void scoreCaptures() {
+    for (int i = 0; i < moves.size(); i++) {
+      int move = moves.get(i);
+      int victim = (move & Move.EN_PASSANT) != 0 ? 0 : position.pieceAt(Move.to(move));
+      int attacker = position.pieceAt(Move.from(move)) % 6;
+      int score = victim == BitPosition.EMPTY ? 0 : Evaluation.PIECE_VALUES[victim % 6] * 8 - attacker;
+      if (Move.promotion(move) != 0) {
+        score += Evaluation.PIECE_VALUES[Move.promotion(move)];
+      }
+      scores[i] = score;
+    }
+  }
+
+  //Selection sort parcial: traz para a posicao i o lance de maior score ainda nao entregue.
+  private int pick(int i) {
+    int best = i;
+    for (int j = i + 1; j < moves.size(); j++) {
+      if (scores[j] > scores[best]) {
+        best = j;
+      }
+    }
+    if (best != i) {
+      int move = moves.get(i);
+      moves.set(i, moves.get(best));
+      moves.set(best, move);
+      int s = scores[i];
+      scores[i] = scores[best];
+      scores[best] = s;
+    }
+    return moves.get(i);
+  }
+}
@@ -0,0 +1,159 @@
+package chess.engine;
+
+import chess.ChessMatch;
+import chess.bitboard.BitPosition;
+import chess.bitboard.Move;
+import chess.bitboard.MoveGenerator;
+import chess.bitboard.MoveList;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/*
+  OpeningBook
+    Livro de aberturas Polyglot (.bin) mapeado em memoria (somente leitura): o arquivo
+      nao e copiado para o heap e as paginas sao compartilhadas pelo sistema operacional
+      entre todos os processos que abrirem o mesmo livro.
+
+    Formato: entradas de 16 bytes (big endian), ordenadas pela chave:
+      [chave 8 bytes][movimento 2 bytes][peso 2 bytes][learn 4 bytes]
+    Movimento: bits 0-2 coluna de destino, 3-5 fileira de destino, 6-8 coluna de origem,
+      9-11 fileira de origem (fileira 0 = fileira 1 do tabuleiro), 12-14 promocao
+      (1 cavalo, 2 bispo, 3 torre, 4 dama, mesmos ordinais de PieceType).
+      O roque e gravado como o rei capturando a propria torre (e1h1).
+
+    A busca e binaria direto no buffer mapeado; os movimentos do livro sao convertidos
+      para o formato de Move conferindo com os lances legais da posicao (entradas
+      invalidas ou de outra posicao com a mesma chave sao ignoradas).
+ */
+public final class OpeningBook {
+  private static final int ENTRY_SIZE = 16;
+
+  private final ByteBuffer buffer;
+  private final int entries;
+  private final PolyglotKey keys;
+
+  public record BookMove(int move, int weight) {
+    @Override
+    public String toString() {
+      return Move.toString(move) + " (" + weight + ")";
+    }
+  }
+
+  public OpeningBook(Path file, PolyglotKey keys) throws IOException {
+    this.keys = keys;
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      long size = channel.size();
+      if (size % ENTRY_SIZE != 0 || size > Integer.MAX_VALUE) {
+        throw new IOException("Invalid Polyglot book size: " + size + " bytes");
+      }
+      buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+      entries = (int) (size / ENTRY_SIZE);
+    }
+  }
+
+  public int size() {
+    return entries;
+  }
+
+  public List<BookMove> moves(ChessMatch match) {
+    return moves(match.toBitPosition());
+  }
+
+  //Lances do livro para a posicao, na ordem do arquivo; lista vazia se a posicao nao esta no livro.
+  public List<BookMove> moves(BitPosition position) {
+    List<BookMove> result = new ArrayList<>();
+    long key = keys.key(position);
+    MoveList legal = null;
+    for (int i = lowerBound(key); i < entries && entryKey(i) == key; i++) {
+      int offset = i * ENTRY_SIZE;
+      int weight = Short.toUnsignedInt(buffer.getShort(offset + 10));
+      if (legal == null) {
+        legal = new MoveList();
+        MoveGenerator.generateLegal(position, legal);
+      }
+      int move = decode(Short.toUnsignedInt(buffer.getShort(offset + 8)), legal);
+      if (move != Move.NONE) {
+        result.add(new BookMove(move, weight));
+      }
+    }
+    return result;
+  }
+
+  /*
+    pick
+      Sorteia um lance com probabilidade proporcional ao peso.
+      Retorna Move.NONE se a posicao nao estiver no livro.
+   */
+  public int pick(BitPosition position, RandomGenerator random) {
+    List<BookMove> moves = moves(position);
+    long total = 0;
+    for (BookMove m : moves) {
+      total += m.weight();
+    }
+    if (moves.isEmpty()) {
+      return Move.NONE;
+    }
+    if (total == 0) {
+      return moves.get(0).move();
+    }
+    long r = random.nextLong(total);
+    for (BookMove m : moves) {
+      r -= m.weight();
+      if (r < 0) {
+        return m.move();
+      }
+    }
+    return moves.get(moves.size() - 1).move();
+  }
+
+  //Primeira entrada com chave >= key (chaves comparadas sem sinal, como no arquivo).
+  private int lowerBound(long key) {
+    int low = 0;
+    int high = entries;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (Long.compareUnsigned(entryKey(mid), key) < 0) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  private long entryKey(int index) {
+    return buffer.getLong(index * ENTRY_SIZE);
+  }
+
+  private static int decode(int bookMove, MoveList legal) {
+    int to = square(bookMove & 63);
+    int from = square(bookMove >>> 6 & 63);
+    int promotion = bookMove >>> 12 & 7;
+    for (int i = 0; i < legal.size(); i++) {
+      int move = legal.get(i);
+      if (Move.from(move) != from || Move.promotion(move) != promotion) {
+        continue;
+      }
+      int target = Move.to(move);
+      if ((move & Move.CASTLING) != 0) {
+        target = target > from ? target + 1 : target - 2;
+      }
+      if (target == to) {
+        return move;
+      }
+    }
+    return Move.NONE;
+  }
+
+  //Casa do Polyglot (fileira * 8 + coluna, fileira 0 = fileira 1) para o indice do projeto.
+  private static int square(int polyglotSquare) {
+    return (7 - (polyglotSquare >>> 3)) * 8 + (polyglotSquare & 7);
+  }
+}
@@ -0,0 +1,153 @@
+package chess.engine;
+
+import chess.ChessMatch;
+import chess.bitboard.BitPosition;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/*
+  ParallelSearch (Lazy SMP)
+    N threads buscam a mesma raiz, cada uma com a sua copia da BitPosition e a sua
+      instancia de Search; a unica coisa compartilhada e a TranspositionTable (sem lock).
+    As threads auxiliares de numero impar comecam uma profundidade a frente, entao
+      as arvores se desencontram e uma thread aproveita na tabela o que a outra ja buscou.
+    A thread 0 define a profundidade e aplica os limites de tempo (SearchLimits):
+      quando ela termina, as demais sao interrompidas.
+    O limite de nos vale para a soma das threads: cada uma recebe uma parte igual
+      (ver nodeShare), sem contador compartilhado no caminho quente da busca.
+    A thread 0 e a propria thread que chamou search (sem troca de thread para comecar
+      ou para devolver o resultado); as auxiliares ficam em um pool criado uma vez.
+    O resultado escolhido e o da thread que completou a maior profundidade (empate: a thread 0),
+      com os nos somados de todas as threads.
+ */
+public class ParallelSearch implements AutoCloseable {
+  private final TranspositionTable table;
+  private final Search[] searches;
+  private final ExecutorService pool;
+
+  public ParallelSearch(TranspositionTable table, int threads) {
+    if (threads < 1) {
+      throw new IllegalArgumentException("At least one search thread is required");
+    }
+    this.table = table;
+    searches = new Search[threads];
+    for (int i = 0; i < threads; i++) {
+      searches[i] = new Search(table);
+    }
+    pool = threads == 1 ? null : Executors.newFixedThreadPool(threads - 1, r -> {
+      Thread t = new Thread(r, "search-helper");
+      t.setDaemon(true);
+      return t;
+    });
+  }
+
+  public int threads() {
+    return searches.length;
+  }
+
+  public SearchResult search(ChessMatch match, int maxDepth) {
+    return search(match.toBitPosition(), maxDepth);
+  }
+
+  public SearchResult search(BitPosition root, int maxDepth) {
+    return search(root, SearchLimits.depth(maxDepth));
+  }
+
+  public SearchResult search(BitPosition root, SearchLimits limits) {
+    prepare(limits);
+    return run(root, limits);
+  }
+
+  /*
+    prepare/run
+      Separados para que SearchController limpe o sinal de parada na thread que pediu
+        a busca: um stop chamado logo depois de iniciar a busca nao se perde.
+   */
+  void prepare(SearchLimits limits) {
+    table.newSearch();
+    searches[0].prepare(limits.withNodes(nodeShare(limits.nodes(), 0)));
+    for (int i = 1; i < searches.length; i++) {
+      searches[i].prepare(SearchLimits.nodes(nodeShare(limits.nodes(), i)));
+    }
+  }
+
+  //Parte do limite de nos da thread; a sobra da divisao fica com a thread 0. 0 = sem limite.
+  private long nodeShare(long nodes, int thread) {
+    if (nodes <= 0) {
+      return 0;
+    }
+    long share = Math.max(1, nodes / searches.length);
+    return thread == 0 ? Math.max(1, nodes - share * (searches.length - 1)) : share;
+  }
+
+  SearchResult run(BitPosition root, SearchLimits limits) {
+    int maxDepth = limits.maxDepth();
+    long start = System.currentTimeMillis();
+    List<Future<SearchResult>> futures = new ArrayList<>(searches.length - 1);
+    for (int i = 1; i < searches.length; i++) {
+      Search s = searches[i];
+      BitPosition position = new BitPosition(root);
+      int firstDepth = i % 2 == 1 ? 2 : 1;
+      futures.add(pool.submit(() -> s.run(position, firstDepth, maxDepth)));
+    }
+
+    try {
+      SearchResult best = searches[0].run(new BitPosition(root), 1, maxDepth);
+      stop();
+      long nodes = searches[0].nodes();
+      for (int i = 1; i < searches.length; i++) {
+        SearchResult r = futures.get(i - 1).get();
+        nodes += searches[i].nodes();
+        if (r.depth() > best.depth() && r.move() != 0) {
+          best = r;
+        }
+      }
+      return new SearchResult(best.move(), best.score(), best.depth(), nodes, System.currentTimeMillis() - start, best.pv());
+    } catch (InterruptedException e) {
+      stop();
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Search interrupted", e);
+    } catch (ExecutionException e) {
+      stop();
+      throw new IllegalStateException("Search thread failed", e.getCause());
+    }
+  }
+
+  public void setListener(Consumer<SearchResult> listener) {
+    searches[0].setListener(listener);
+  }
+
+  public void setBitbases(Bitbases bitbases) {
+    for (Search s : searches) {
+      s.setBitbases(bitbases);
+    }
+  }
+
+  //Troca os limites da busca em andamento (ponderhit); os prazos contam a partir de agora.
+  public void setLimits(SearchLimits limits) {
+    searches[0].setLimits(limits.withNodes(nodeShare(limits.nodes(), 0)));
+    for (int i = 1; i < searches.length; i++) {
+      searches[i].setLimits(SearchLimits.nodes(nodeShare(limits.nodes(), i)));
+    }
+  }
+
+  public void stop() {
+    for (Search s : searches) {
+      s.stop();
+    }
+  }
+
+  @Override
+  public void close() {
+    stop();
+    if (pool != null) {
+      pool.shutdownNow();
+    }
+  }
+}
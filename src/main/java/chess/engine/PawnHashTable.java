@@ -0,0 +1,65 @@
+package chess.engine;
+
+import chess.bitboard.BitPosition;
+
+import java.util.Arrays;
+
+/*
+  PawnHashTable
+    Cache da PawnStructure indexado pela chave Zobrist dos peoes (BitPosition.pawnKey).
+    A estrutura de peoes muda pouco dentro da arvore de busca, entao quase toda
+      avaliacao encontra a entrada pronta.
+    Pequena e sem sincronizacao: cada thread de busca (Search) tem a sua.
+    A chave 0 (sem peoes) coincide com as entradas vazias, o que esta certo: sem peoes
+      o score e 0.
+ */
+public final class PawnHashTable {
+  public static final int DEFAULT_ENTRIES = 1 << 16;
+
+  private final long[] keys;
+  private final int[] scores;
+  private final int mask;
+  private long probes;
+  private long hits;
+
+  public PawnHashTable() {
+    this(DEFAULT_ENTRIES);
+  }
+
+  public PawnHashTable(int entries) {
+    if (entries < 1) {
+      throw new IllegalArgumentException("Pawn hash table must have at least 1 entry");
+    }
+    int size = Integer.highestOneBit(entries);
+    keys = new long[size];
+    scores = new int[size];
+    mask = size - 1;
+  }
+
+  //Score da estrutura de peoes (ver PawnStructure.score), calculado so se a chave nao estiver na tabela.
+  public int probe(BitPosition position) {
+    long key = position.pawnKey();
+    int i = (int) key & mask;
+    probes++;
+    if (keys[i] == key) {
+      hits++;
+      return scores[i];
+    }
+    int score = PawnStructure.evaluate(position);
+    keys[i] = key;
+    scores[i] = score;
+    return score;
+  }
+
+  //Fracao das consultas respondidas pela tabela.
+  public double hitRate() {
+    return probes == 0 ? 0 : (double) hits / probes;
+  }
+
+  public void clear() {
+    Arrays.fill(keys, 0L);
+    Arrays.fill(scores, 0);
+    probes = 0;
+    hits = 0;
+  }
+}
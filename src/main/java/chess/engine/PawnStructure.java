@@ -0,0 +1,95 @@
+package chess.engine;
+
+import chess.bitboard.BitPosition;
+import chess.bitboard.Bitboards;
+
+/*
+  PawnStructure
+    Termos de estrutura de peoes, do ponto de vista das brancas (meio-jogo e final):
+      passado   nenhum peao adversario na frente, na mesma coluna ou nas vizinhas;
+                  o bonus cresce com a fileira (muito mais no final)
+      isolado   nenhum peao da mesma cor nas colunas vizinhas
+      dobrado   cada peao a mais na mesma coluna
+    Dependem so dos peoes, entao o resultado e guardado pela PawnHashTable com a chave
+      dos peoes da posicao e so e recalculado quando algum peao muda.
+
+    O resultado e um int com os dois termos: score(mg, eg), lido com midgame/endgame.
+ */
+public final class PawnStructure {
+  //Bonus do peao passado pela fileira vista do seu lado (0 = primeira fileira).
+  private static final int[] PASSED_MIDGAME = {0, 5, 10, 15, 30, 50, 80, 0};
+  private static final int[] PASSED_ENDGAME = {0, 10, 20, 35, 60, 100, 150, 0};
+  private static final int ISOLATED_MIDGAME = -12;
+  private static final int ISOLATED_ENDGAME = -15;
+  private static final int DOUBLED_MIDGAME = -10;
+  private static final int DOUBLED_ENDGAME = -25;
+
+  private static final long[] FILES = new long[8];
+  private static final long[] ADJACENT_FILES = new long[8];
+  //Casas que precisam estar sem peoes adversarios para o peao da cor/casa ser passado.
+  private static final long[][] PASSED_MASK = new long[2][64];
+
+  static {
+    for (int column = 0; column < 8; column++) {
+      FILES[column] = Bitboards.FILE_A << column;
+    }
+    for (int column = 0; column < 8; column++) {
+      ADJACENT_FILES[column] = (column > 0 ? FILES[column - 1] : 0) | (column < 7 ? FILES[column + 1] : 0);
+    }
+    for (int sq = 0; sq < 64; sq++) {
+      int row = Bitboards.row(sq);
+      long span = FILES[Bitboards.column(sq)] | ADJACENT_FILES[Bitboards.column(sq)];
+      //Fileira 0 e a oitava: as brancas avancam para indices menores.
+      PASSED_MASK[BitPosition.WHITE][sq] = span & ((1L << (row * 8)) - 1);
+      PASSED_MASK[BitPosition.BLACK][sq] = row < 7 ? span & -(1L << ((row + 1) * 8)) : 0;
+    }
+  }
+
+  private PawnStructure() {
+  }
+
+  public static int evaluate(BitPosition position) {
+    long white = position.pieces(BitPosition.WHITE * 6);
+    long black = position.pieces(BitPosition.BLACK * 6);
+    int mg = 0;
+    int eg = 0;
+    for (int color = BitPosition.BLACK; color <= BitPosition.WHITE; color++) {
+      long own = color == BitPosition.WHITE ? white : black;
+      long enemy = color == BitPosition.WHITE ? black : white;
+      int sign = color == BitPosition.WHITE ? 1 : -1;
+      for (long b = own; b != 0; b &= b - 1) {
+        int sq = Bitboards.first(b);
+        int column = Bitboards.column(sq);
+        if ((PASSED_MASK[color][sq] & enemy) == 0) {
+          int rank = color == BitPosition.WHITE ? 7 - Bitboards.row(sq) : Bitboards.row(sq);
+          mg += sign * PASSED_MIDGAME[rank];
+          eg += sign * PASSED_ENDGAME[rank];
+        }
+        if ((ADJACENT_FILES[column] & own) == 0) {
+          mg += sign * ISOLATED_MIDGAME;
+          eg += sign * ISOLATED_ENDGAME;
+        }
+      }
+      for (int column = 0; column < 8; column++) {
+        int extra = Bitboards.count(own & FILES[column]) - 1;
+        if (extra > 0) {
+          mg += sign * extra * DOUBLED_MIDGAME;
+          eg += sign * extra * DOUBLED_ENDGAME;
+        }
+      }
+    }
+    return score(mg, eg);
+  }
+
+  static int score(int midgame, int endgame) {
+    return (midgame << 16) + endgame;
+  }
+
+  static int midgame(int score) {
+    return (score + 0x8000) >> 16;
+  }
+
+  static int endgame(int score) {
+    return (short) score;
+  }
+}
@@ -0,0 +1,122 @@
+package chess.engine;
+
+import chess.ChessMatch;
+import chess.PieceType;
+import chess.bitboard.BitPosition;
+import chess.bitboard.Bitboards;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/*
+  PolyglotKey
+    Chave Zobrist no formato dos livros Polyglot (.bin), que e diferente da chave do
+      projeto: usa a tabela fixa Random64 de 781 numeros do formato.
+      indice 64 * tipo + 8 * fileira + coluna   peca (tipo = 2 * PieceType + 1 se branca;
+                                                fileira 0 = fileira 1 do tabuleiro)
+      768..771                                  roque K, Q, k, q
+      772..779                                  coluna de en passant (so se o lado da vez
+                                                puder capturar, como em Zobrist)
+      780                                       brancas jogam
+    A tabela Random64 nao vem com o projeto: e lida de um arquivo texto com os 781
+      valores em hexadecimal (aceita a lista em C do codigo do Polyglot, com "0x" e "ULL").
+    Toda tabela e conferida com a chave publicada da posicao inicial (START_KEY): uma
+      tabela errada faria o livro nunca achar as posicoes, sem erro nenhum.
+ */
+public final class PolyglotKey {
+  public static final int SIZE = 781;
+  //Recurso procurado no classpath por fromClasspath.
+  public static final String RESOURCE = "/chess/engine/polyglot-random64.txt";
+  //Chave da posicao inicial na documentacao do formato Polyglot.
+  public static final long START_KEY = 0x463B96181691FC9CL;
+
+  private static final int CASTLING = 768;
+  private static final int EN_PASSANT = 772;
+  private static final int TURN = 780;
+  private static final int PAWN = PieceType.PAWN.ordinal();
+
+  private final long[] random;
+
+  public PolyglotKey(long[] random64) {
+    if (random64.length != SIZE) {
+      throw new IllegalArgumentException("Polyglot Random64 table must have " + SIZE + " values, found " + random64.length);
+    }
+    random = random64.clone();
+    long start = key(new ChessMatch().toBitPosition());
+    if (start != START_KEY) {
+      throw new IllegalArgumentException(String.format(
+          "Not the Polyglot Random64 table: start position key is %016x, expected %016x", start, START_KEY));
+    }
+  }
+
+  public static PolyglotKey load(Path file) throws IOException {
+    return new PolyglotKey(parse(Files.readString(file, StandardCharsets.US_ASCII)));
+  }
+
+  public static PolyglotKey fromClasspath() throws IOException {
+    try (InputStream in = PolyglotKey.class.getResourceAsStream(RESOURCE)) {
+      if (in == null) {
+        throw new IOException("Polyglot Random64 table not found on the classpath: " + RESOURCE);
+      }
+      return new PolyglotKey(parse(new String(in.readAllBytes(), StandardCharsets.US_ASCII)));
+    }
+  }
+
+  public long key(BitPosition position) {
+    long key = 0;
+    for (int piece = 0; piece < 12; piece++) {
+      int color = piece / 6;
+      int kind = 2 * (piece % 6) + (color == BitPosition.WHITE ? 1 : 0);
+      for (long b = position.pieces(piece); b != 0; b &= b - 1) {
+        int sq = Bitboards.first(b);
+        key ^= random[64 * kind + 8 * (7 - Bitboards.row(sq)) + Bitboards.column(sq)];
+      }
+    }
+
+    //Bits de roque do projeto: 1 = K, 2 = Q, 4 = k, 8 = q (mesma ordem do Polyglot).
+    int castling = position.castlingRights();
+    for (int i = 0; i < 4; i++) {
+      if ((castling & 1 << i) != 0) {
+        key ^= random[CASTLING + i];
+      }
+    }
+
+    int ep = position.enPassantSquare();
+    if (ep >= 0) {
+      int side = position.sideToMove();
+      long pawn = Bitboards.bit(ep + (side == BitPosition.WHITE ? 8 : -8));
+      long neighbours = (pawn << 1 & ~Bitboards.FILE_A) | (pawn >>> 1 & ~Bitboards.FILE_H);
+      if ((neighbours & position.pieces(side * 6 + PAWN)) != 0) {
+        key ^= random[EN_PASSANT + Bitboards.column(ep)];
+      }
+    }
+
+    if (position.sideToMove() == BitPosition.WHITE) {
+      key ^= random[TURN];
+    }
+    return key;
+  }
+
+  private static long[] parse(String text) {
+    long[] values = new long[SIZE];
+    int n = 0;
+    for (String token : text.split("[\\s,{};]+")) {
+      String t = token.trim();
+      if (t.isEmpty() || !(t.startsWith("0x") || t.startsWith("0X"))) {
+        continue;
+      }
+      t = t.substring(2).replaceAll("[uUlL]+$", "");
+      if (n == SIZE) {
+        throw new IllegalArgumentException("Polyglot Random64 table has more than " + SIZE + " values");
+      }
+      values[n++] = Long.parseUnsignedLong(t, 16);
+    }
+    if (n != SIZE) {
+      throw new IllegalArgumentException("Polyglot Random64 table must have " + SIZE + " values, found " + n);
+    }
+    return values;
+  }
+}
@@ -0,0 +1,395 @@
+package chess.engine;
+
+import chess.ChessMatch;
+import chess.bitboard.BitPosition;
+import chess.bitboard.Move;
+import chess.bitboard.MoveGenerator;
+import chess.bitboard.MoveList;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/*
+  Search
+    Busca alpha-beta com aprofundamento iterativo e Principal Variation Search (PVS).
+    Trabalha sobre uma BitPosition com make/unmake proprios: nenhum objeto e criado e
+      nenhuma ChessException e lancada dentro da arvore.
+
+    PVS
+      O primeiro lance de cada no e buscado com a janela inteira; os demais com janela
+        nula (alpha, alpha + 1). Se algum deles superar alpha, e buscado de novo com a
+        janela inteira para obter o valor exato.
+
+    Scores de mate sao MATE - ply (mate mais rapido vale mais). Na tabela de transposicao
+      sao gravados relativos ao no, para continuarem validos em outra profundidade da arvore.
+
+    Nas folhas a quiescence busca so capturas e promocoes ate a posicao ficar quieta,
+      com stand pat (o lado da vez pode aceitar a avaliacao estatica em vez de capturar)
+      e sem as capturas que perdem material pela SEE.
+
+    A ordem dos lances vem do MovePicker; killers, history e counter moves ficam em
+      Heuristics, que pertence a instancia e persiste entre as iteracoes, assim como
+      a PawnHashTable usada pela avaliacao.
+
+    Limites (SearchLimits)
+      stop pode ser chamado de qualquer thread: o sinal e volatile e lido em todo no,
+        entao a busca desfaz os lances e retorna quase imediatamente.
+      O limite de nos e conferido em todo no; o relogio a cada 1024 nos (menos de 1 ms),
+        para que System.nanoTime nao pese na busca.
+      O resultado e sempre o da ultima iteracao completa.
+
+    Uma instancia nao e thread-safe; cada thread de busca usa a sua.
+ */
+public class Search {
+  public static final int INFINITY = 32000;
+  public static final int MATE = 31000;
+  public static final int MAX_PLY = 128;
+  //Vitoria conhecida pelas bitbases: abaixo dos scores de mate, acima de qualquer avaliacao.
+  public static final int KNOWN_WIN = 20000;
+
+  private final TranspositionTable table;
+  private final Heuristics heuristics = new Heuristics();
+  private final PawnHashTable pawns = new PawnHashTable();
+  private final MovePicker[] pickers = new MovePicker[MAX_PLY];
+  private final int[] currentMove = new int[MAX_PLY];
+  private final int[][] quietsTried = new int[MAX_PLY][MoveList.CAPACITY];
+  private final int[][] pv = new int[MAX_PLY + 1][MAX_PLY + 1];
+  private final int[] pvLength = new int[MAX_PLY + 1];
+
+  private BitPosition position;
+  private long nodes;
+  private volatile boolean stopped;
+  private volatile long nodeLimit = Long.MAX_VALUE;
+  private volatile int depthLimit = MAX_PLY - 1;
+  private volatile long softDeadline = Long.MAX_VALUE;
+  private volatile long hardDeadline = Long.MAX_VALUE;
+  private Consumer<SearchResult> listener;
+  private Bitbases bitbases;
+
+  public Search(TranspositionTable table) {
+    this.table = table;
+    for (int i = 0; i < MAX_PLY; i++) {
+      pickers[i] = new MovePicker(heuristics);
+    }
+  }
+
+  public SearchResult search(ChessMatch match, int maxDepth) {
+    return search(match.toBitPosition(), maxDepth);
+  }
+
+  public SearchResult search(BitPosition position, int maxDepth) {
+    return search(position, SearchLimits.depth(maxDepth));
+  }
+
+  /*
+    search
+      Aprofunda ate algum limite ser atingido e retorna o resultado da ultima iteracao completa.
+      A posicao e usada como area de trabalho e volta ao estado original no final.
+   */
+  public SearchResult search(BitPosition position, SearchLimits limits) {
+    table.newSearch();
+    prepare(limits);
+    return run(position, 1, limits.maxDepth());
+  }
+
+  //Tabelas de finais consultadas na busca (null desliga).
+  public void setBitbases(Bitbases bitbases) {
+    this.bitbases = bitbases;
+  }
+
+  //Recebe o resultado de cada iteracao completa (para mostrar o progresso da busca).
+  public void setListener(Consumer<SearchResult> listener) {
+    this.listener = listener;
+  }
+
+  //Interrompe a busca em andamento; o resultado e o da ultima iteracao completa.
+  public void stop() {
+    stopped = true;
+  }
+
+  public long nodes() {
+    return nodes;
+  }
+
+  //Fracao das avaliacoes que encontraram a estrutura de peoes na PawnHashTable.
+  public double pawnHitRate() {
+    return pawns.hitRate();
+  }
+
+  //Separado de run para que ParallelSearch limpe o sinal antes de iniciar as threads.
+  void prepare(SearchLimits limits) {
+    stopped = false;
+    nodes = 0;
+    setLimits(limits);
+    heuristics.age();
+  }
+
+  /*
+    setLimits
+      Limites de nos, profundidade e tempo; chamado no inicio da busca ou, com a busca
+        em andamento, no ponderhit. Os nos ja buscados (inclusive no ponder) contam.
+   */
+  void setLimits(SearchLimits limits) {
+    nodeLimit = limits.nodes() > 0 ? limits.nodes() : Long.MAX_VALUE;
+    depthLimit = limits.maxDepth();
+    setTime(limits.softTime(), limits.hardTime());
+  }
+
+  //Prazos contados a partir de agora; 0 = sem prazo.
+  private void setTime(long softMillis, long hardMillis) {
+    long now = System.nanoTime();
+    softDeadline = softMillis > 0 ? now + softMillis * 1_000_000 : Long.MAX_VALUE;
+    hardDeadline = hardMillis > 0 ? now + hardMillis * 1_000_000 : Long.MAX_VALUE;
+  }
+
+  /*
+    run
+      Aprofundamento iterativo de firstDepth ate maxDepth, sem avancar a geracao da tabela
+        (a busca paralela faz isso uma vez para todas as threads).
+   */
+  SearchResult run(BitPosition position, int firstDepth, int maxDepth) {
+    this.position = position;
+    long start = System.currentTimeMillis();
+    SearchResult result = new SearchResult(Move.NONE, 0, 0, 0, 0, new int[0]);
+    for (int depth = firstDepth; depth <= Math.min(maxDepth, depthLimit); depth++) {
+      int score = alphaBeta(-INFINITY, INFINITY, depth, 0);
+      if (stopped) {
+        break;
+      }
+      int[] line = Arrays.copyOf(pv[0], pvLength[0]);
+      result = new SearchResult(line.length > 0 ? line[0] : Move.NONE, score, depth, nodes, System.currentTimeMillis() - start, line);
+      if (listener != null) {
+        listener.accept(result);
+      }
+      if (line.length == 0 || Math.abs(score) >= MATE - depth || System.nanoTime() >= softDeadline) {
+        break;
+      }
+    }
+    if (result.move() == Move.NONE) {
+      result = fallback(result, System.currentTimeMillis() - start);
+    }
+    return result;
+  }
+
+  /*
+    fallback
+      Parada antes de completar a primeira iteracao: usa o melhor lance que a raiz
+        ja tinha encontrado ou, sem nenhum, o primeiro lance legal.
+   */
+  private SearchResult fallback(SearchResult result, long time) {
+    int move = pvLength[0] > 0 ? pv[0][0] : Move.NONE;
+    if (move == Move.NONE) {
+      MoveList legal = new MoveList();
+      MoveGenerator.generateLegal(position, legal);
+      if (legal.size() == 0) {
+        return result;
+      }
+      move = legal.get(0);
+    }
+    return new SearchResult(move, 0, 0, nodes, time, new int[]{move});
+  }
+
+  private boolean shouldStop() {
+    if (nodes >= nodeLimit || (nodes & 1023) == 0 && System.nanoTime() >= hardDeadline) {
+      stopped = true;
+    }
+    return stopped;
+  }
+
+  private int alphaBeta(int alpha, int beta, int depth, int ply) {
+    pvLength[ply] = 0;
+    boolean inCheck = position.inCheck();
+    if (inCheck) {
+      depth++;
+    }
+    if (depth <= 0 || ply >= MAX_PLY - 1) {
+      return quiescence(alpha, beta, ply);
+    }
+    nodes++;
+    if (shouldStop()) {
+      return 0;
+    }
+
+    if (ply > 0) {
+      if (position.halfmoveClock() >= 100 || position.isRepetition()) {
+        return 0;
+      }
+      //Bitbases so logo depois de captura ou lance de peao (quando o final aparece):
+      //  dentro do final a busca continua normal para encontrar o caminho do mate.
+      if (bitbases != null && position.halfmoveClock() == 0) {
+        int wdl = bitbases.probe(position);
+        if (wdl != Bitbases.NONE) {
+          return wdl == Bitbases.DRAW ? 0 : wdl * (KNOWN_WIN - ply) + Evaluation.evaluate(position, pawns);
+        }
+      }
+      //Mate distance pruning: nenhum resultado daqui pode ser melhor que mate no proximo lance.
+      alpha = Math.max(alpha, -MATE + ply);
+      beta = Math.min(beta, MATE - ply - 1);
+      if (alpha >= beta) {
+        return alpha;
+      }
+    }
+
+    boolean pvNode = beta - alpha > 1;
+    long key = position.key();
+    long entry = table.probe(key);
+    int hashMove = Move.NONE;
+    if (entry != 0) {
+      hashMove = TranspositionTable.move(entry);
+      int score = fromTable(TranspositionTable.score(entry), ply);
+      int bound = TranspositionTable.bound(entry);
+      if (!pvNode && TranspositionTable.depth(entry) >= depth
+          && (bound == TranspositionTable.BOUND_EXACT
+          || bound == TranspositionTable.BOUND_LOWER && score >= beta
+          || bound == TranspositionTable.BOUND_UPPER && score <= alpha)) {
+        return score;
+      }
+    }
+
+    MovePicker picker = pickers[ply];
+    int previousMove = ply > 0 ? currentMove[ply - 1] : Move.NONE;
+    picker.init(position, hashMove, ply, previousMove);
+
+    int us = position.sideToMove();
+    int best = -INFINITY;
+    int bestMove = Move.NONE;
+    int legal = 0;
+    int quiets = 0;
+    int originalAlpha = alpha;
+    for (int move = picker.next(); move != Move.NONE; move = picker.next()) {
+      position.make(move);
+      if (position.isAttacked(position.kingSquare(us), us ^ 1)) {
+        position.unmake(move);
+        continue;
+      }
+      legal++;
+      currentMove[ply] = move;
+
+      int score;
+      if (legal == 1) {
+        score = -alphaBeta(-beta, -alpha, depth - 1, ply + 1);
+      } else {
+        score = -alphaBeta(-alpha - 1, -alpha, depth - 1, ply + 1);
+        if (score > alpha && score < beta) {
+          score = -alphaBeta(-beta, -alpha, depth - 1, ply + 1);
+        }
+      }
+      position.unmake(move);
+      if (stopped) {
+        return 0;
+      }
+
+      if (score > best) {
+        best = score;
+        bestMove = move;
+        if (score > alpha) {
+          alpha = score;
+          updatePv(ply, move);
+          if (alpha >= beta) {
+            if (isQuiet(move)) {
+              heuristics.update(us, move, depth, ply, previousMove);
+              for (int i = 0; i < quiets; i++) {
+                heuristics.penalize(us, quietsTried[ply][i], depth);
+              }
+            }
+            break;
+          }
+        }
+      }
+      if (isQuiet(move)) {
+        quietsTried[ply][quiets++] = move;
+      }
+    }
+
+    if (legal == 0) {
+      return inCheck ? -MATE + ply : 0;
+    }
+
+    int bound = best >= beta ? TranspositionTable.BOUND_LOWER
+        : best > originalAlpha ? TranspositionTable.BOUND_EXACT : TranspositionTable.BOUND_UPPER;
+    table.store(key, bestMove, toTable(best, ply), depth, bound);
+    return best;
+  }
+
+  private int quiescence(int alpha, int beta, int ply) {
+    pvLength[ply] = 0;
+    nodes++;
+    if (shouldStop()) {
+      return 0;
+    }
+    //Em check nao ha stand pat: todas as respostas sao buscadas e, sem nenhuma, e mate.
+    boolean inCheck = position.inCheck();
+    int standPat = inCheck ? -INFINITY : Evaluation.evaluate(position, pawns);
+    if (ply >= MAX_PLY - 1) {
+      return inCheck ? 0 : standPat;
+    }
+    if (standPat >= beta) {
+      return standPat;
+    }
+    if (standPat > alpha) {
+      alpha = standPat;
+    }
+
+    long entry = table.probe(position.key());
+    int hashMove = entry != 0 ? TranspositionTable.move(entry) : Move.NONE;
+    MovePicker picker = pickers[ply];
+    if (inCheck) {
+      picker.init(position, hashMove, ply, Move.NONE);
+    } else {
+      picker.initTactical(position, hashMove);
+    }
+
+    int us = position.sideToMove();
+    int best = standPat;
+    int legal = 0;
+    for (int move = picker.next(); move != Move.NONE; move = picker.next()) {
+      position.make(move);
+      if (position.isAttacked(position.kingSquare(us), us ^ 1)) {
+        position.unmake(move);
+        continue;
+      }
+      legal++;
+      int score = -quiescence(-beta, -alpha, ply + 1);
+      position.unmake(move);
+      if (stopped) {
+        return 0;
+      }
+
+      if (score > best) {
+        best = score;
+        if (score > alpha) {
+          alpha = score;
+          if (alpha >= beta) {
+            break;
+          }
+        }
+      }
+    }
+    if (inCheck && legal == 0) {
+      return -MATE + ply;
+    }
+    return best;
+  }
+
+  private static boolean isQuiet(int move) {
+    return !Move.isCapture(move) && Move.promotion(move) == 0;
+  }
+
+  private void updatePv(int ply, int move) {
+    pv[ply][0] = move;
+    System.arraycopy(pv[ply + 1], 0, pv[ply], 1, pvLength[ply + 1]);
+    pvLength[ply] = pvLength[ply + 1] + 1;
+  }
+
+  private static int toTable(int score, int ply) {
+    if (score >= MATE - MAX_PLY) return score + ply;
+    if (score <= -MATE + MAX_PLY) return score - ply;
+    return score;
+  }
+
+  private static int fromTable(int score, int ply) {
+    if (score >= MATE - MAX_PLY) return score - ply;
+    if (score <= -MATE + MAX_PLY) return score + ply;
+    return score;
+  }
+}
@@ -0,0 +1,157 @@
+package chess.engine;
+
+import chess.ChessMatch;
+import chess.bitboard.BitPosition;
+import chess.bitboard.Move;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/*
+  SearchController
+    Escolhe o lance dentro de um orcamento de tempo, nos ou profundidade (SearchLimits),
+      rodando a busca em uma thread propria: quem chamou (Program, um servidor, o UCI)
+      continua livre para ler a entrada e pode chamar stop a qualquer momento.
+    O resultado e o melhor lance da ultima iteracao completa.
+
+    Ponder
+      Com ponder = true a busca comeca sem prazo, na posicao depois da resposta esperada
+        do adversario. Se ele jogar esse lance, ponderHit aplica os limites de start (o tempo
+        contado a partir de agora) e a busca continua de onde estava; se jogar outro, stop descarta.
+      Buscas com ponder ou infinite so terminam depois de stop (ou ponderHit), mesmo
+        que acabem antes, como o protocolo UCI exige.
+
+    Com um OpeningBook configurado, uma posicao do livro retorna o lance sorteado
+      pelo peso sem buscar (exceto em ponder e infinite, que sao analise).
+ */
+public class SearchController implements AutoCloseable {
+  private final ParallelSearch search;
+  private final ExecutorService runner;
+  private final Object lock = new Object();
+
+  private final SplittableRandom random = new SplittableRandom();
+  private volatile OpeningBook book;
+
+  private Future<SearchResult> current;
+  private SearchLimits limits;
+  private boolean pondering;
+  private boolean waitForStop;
+  private boolean stopRequested;
+
+  public SearchController(TranspositionTable table, int threads) {
+    search = new ParallelSearch(table, threads);
+    runner = Executors.newSingleThreadExecutor(r -> {
+      Thread t = new Thread(r, "search-controller");
+      t.setDaemon(true);
+      return t;
+    });
+  }
+
+  //Busca e espera o resultado.
+  public SearchResult search(ChessMatch match, SearchLimits limits) {
+    try {
+      return start(match.toBitPosition(), limits, false).get();
+    } catch (InterruptedException e) {
+      stop();
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Search interrupted", e);
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("Search failed", e.getCause());
+    }
+  }
+
+  /*
+    start
+      Inicia a busca e retorna sem esperar. A posicao e copiada, entao pode ser
+        alterada por quem chamou enquanto a busca roda.
+   */
+  public Future<SearchResult> start(BitPosition position, SearchLimits limits, boolean ponder) {
+    synchronized (lock) {
+      if (current != null && !current.isDone()) {
+        throw new IllegalStateException("A search is already running");
+      }
+      if (book != null && !ponder && !limits.infinite()) {
+        int move = book.pick(position, random);
+        if (move != Move.NONE) {
+          current = CompletableFuture.completedFuture(new SearchResult(move, 0, 0, 0, 0, new int[]{move}));
+          return current;
+        }
+      }
+      this.limits = limits;
+      pondering = ponder;
+      waitForStop = ponder || limits.infinite();
+      stopRequested = false;
+      SearchLimits effective = ponder ? SearchLimits.unlimited() : limits;
+      search.prepare(effective);
+      BitPosition root = new BitPosition(position);
+      current = runner.submit(() -> {
+        SearchResult result = search.run(root, effective);
+        awaitStop();
+        return result;
+      });
+      return current;
+    }
+  }
+
+  //O adversario jogou o lance esperado: o ponder vira a busca normal, com os limites de start.
+  public void ponderHit() {
+    synchronized (lock) {
+      if (!pondering) {
+        return;
+      }
+      pondering = false;
+      waitForStop = limits.infinite();
+      search.setLimits(limits);
+      lock.notifyAll();
+    }
+  }
+
+  public void stop() {
+    synchronized (lock) {
+      stopRequested = true;
+      pondering = false;
+      search.stop();
+      lock.notifyAll();
+    }
+  }
+
+  //null desliga o livro.
+  public void setBook(OpeningBook book) {
+    this.book = book;
+  }
+
+  public void setBitbases(Bitbases bitbases) {
+    search.setBitbases(bitbases);
+  }
+
+  public boolean isSearching() {
+    synchronized (lock) {
+      return current != null && !current.isDone();
+    }
+  }
+
+  //Recebe o resultado de cada iteracao completa da thread principal.
+  public void setListener(Consumer<SearchResult> listener) {
+    search.setListener(listener);
+  }
+
+  private void awaitStop() throws InterruptedException {
+    synchronized (lock) {
+      while (waitForStop && !stopRequested) {
+        lock.wait();
+      }
+    }
+  }
+
+  @Override
+  public void close() {
+    stop();
+    search.close();
+    runner.shutdownNow();
+  }
+}
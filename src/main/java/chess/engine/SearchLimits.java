@@ -0,0 +1,57 @@
+package chess.engine;
+
+/*
+  SearchLimits
+    Quando a busca deve parar. Valores 0 significam "sem limite".
+      depth     profundidade maxima
+      nodes     numero maximo de nos
+      softTime  (ms) depois disso nao comeca uma nova iteracao
+      hardTime  (ms) a busca e interrompida no meio da iteracao
+      infinite  so para com stop (analise e ponder)
+ */
+public record SearchLimits(int depth, long nodes, long softTime, long hardTime, boolean infinite) {
+
+  public static SearchLimits depth(int depth) {
+    return new SearchLimits(depth, 0, 0, 0, false);
+  }
+
+  public static SearchLimits nodes(long nodes) {
+    return new SearchLimits(0, nodes, 0, 0, false);
+  }
+
+  //Tempo fixo por lance: usa o tempo todo, se a iteracao em andamento precisar.
+  public static SearchLimits moveTime(long millis) {
+    return new SearchLimits(0, 0, millis, millis, false);
+  }
+
+  public static SearchLimits unlimited() {
+    return new SearchLimits(0, 0, 0, 0, true);
+  }
+
+  /*
+    clock
+      Divide o tempo restante pelos lances ate o proximo controle (30 se nao informado)
+        e soma a maior parte do incremento. Uma nova iteracao so comeca antes da metade
+        desse tempo, porque cada iteracao custa mais que todas as anteriores juntas.
+      Uma margem de 50 ms cobre a latencia de entrada e saida.
+   */
+  public static SearchLimits clock(long remaining, long increment, int movesToGo) {
+    long available = Math.max(1, remaining - 50);
+    long budget = available / (movesToGo > 0 ? movesToGo : 30) + increment * 3 / 4;
+    long hard = Math.max(1, Math.min(budget * 2, available / 2));
+    budget = Math.min(budget, hard);
+    return new SearchLimits(0, 0, Math.max(1, budget / 2), hard, false);
+  }
+
+  public SearchLimits withDepth(int depth) {
+    return new SearchLimits(depth, nodes, softTime, hardTime, infinite);
+  }
+
+  public SearchLimits withNodes(long nodes) {
+    return new SearchLimits(depth, nodes, softTime, hardTime, infinite);
+  }
+
+  public int maxDepth() {
+    return depth > 0 ? Math.min(depth, Search.MAX_PLY - 1) : Search.MAX_PLY - 1;
+  }
+}
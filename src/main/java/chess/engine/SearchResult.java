@@ -0,0 +1,39 @@
+package chess.engine;
+
+import chess.bitboard.Move;
+
+/*
+  SearchResult
+    Resultado da ultima iteracao completa da busca.
+    move e pv usam o formato compactado de Move; move e Move.NONE quando nao ha lances legais.
+ */
+public record SearchResult(int move, int score, int depth, long nodes, long timeMillis, int[] pv) {
+
+  public boolean isMate() {
+    return Math.abs(score) >= Search.MATE - Search.MAX_PLY;
+  }
+
+  public long nps() {
+    return timeMillis > 0 ? nodes * 1000 / timeMillis : nodes * 1000;
+  }
+
+  //Variacao principal em notacao de coordenadas: "e2e4 e7e5 g1f3".
+  public String pvString() {
+    StringBuilder sb = new StringBuilder();
+    for (int m : pv) {
+      if (sb.length() > 0) {
+        sb.append(' ');
+      }
+      sb.append(Move.toString(m));
+    }
+    return sb.toString();
+  }
+
+  @Override
+  public String toString() {
+    String s = isMate()
+        ? "mate " + (score > 0 ? (Search.MATE - score + 1) / 2 : -(Search.MATE + score) / 2)
+        : "cp " + score;
+    return "depth " + depth + " score " + s + " nodes " + nodes + " nps " + nps() + " time " + timeMillis + " pv " + pvString();
+  }
+}
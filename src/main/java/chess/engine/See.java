@@ -0,0 +1,113 @@
+package chess.engine;
+
+import chess.PieceType;
+import chess.bitboard.Attacks;
+import chess.bitboard.BitPosition;
+import chess.bitboard.Bitboards;
+import chess.bitboard.Move;
+
+/*
+  See (static exchange evaluation)
+    Resolve a sequencia de capturas em uma casa sem fazer nenhum movimento:
+      os dois lados capturam alternadamente com o atacante de menor valor e cada um
+      pode parar quando continuar nao compensar.
+    Trabalha so com bitboards: ao remover um atacante da ocupacao, os ataques de
+      bispo/torre/dama que estavam atras dele (raio X) passam a contar.
+    Cravadas nao sao consideradas.
+ */
+public final class See {
+  private static final int PAWN = PieceType.PAWN.ordinal();
+  private static final int KNIGHT = PieceType.KNIGHT.ordinal();
+  private static final int BISHOP = PieceType.BISHOP.ordinal();
+  private static final int ROOK = PieceType.ROOK.ordinal();
+  private static final int QUEEN = PieceType.QUEEN.ordinal();
+  private static final int KING = PieceType.KING.ordinal();
+
+  private See() {
+  }
+
+  /*
+    see
+      Retorna true se o saldo da troca iniciada pelo movimento for pelo menos threshold.
+      Roque, en passant e promocoes sao tratados como troca de saldo 0.
+
+      swap guarda quanto o lado que acabou de capturar ainda ganha se a peca dele
+        for capturada de volta; res alterna a cada captura e termina indicando se
+        o lado que iniciou a troca atingiu o threshold.
+   */
+  public static boolean see(BitPosition position, int move, int threshold) {
+    if ((move & (Move.CASTLING | Move.EN_PASSANT)) != 0 || Move.promotion(move) != 0) {
+      return 0 >= threshold;
+    }
+    int from = Move.from(move);
+    int to = Move.to(move);
+    int captured = position.pieceAt(to);
+
+    int swap = (captured == BitPosition.EMPTY ? 0 : value(captured)) - threshold;
+    if (swap < 0) {
+      return false;
+    }
+    swap = value(position.pieceAt(from)) - swap;
+    if (swap <= 0) {
+      return true;
+    }
+
+    long occupied = position.occupied() ^ Bitboards.bit(from) ^ Bitboards.bit(to);
+    long bishops = position.pieces(BitPosition.WHITE * 6 + BISHOP) | position.pieces(BitPosition.BLACK * 6 + BISHOP)
+        | position.pieces(BitPosition.WHITE * 6 + QUEEN) | position.pieces(BitPosition.BLACK * 6 + QUEEN);
+    long rooks = position.pieces(BitPosition.WHITE * 6 + ROOK) | position.pieces(BitPosition.BLACK * 6 + ROOK)
+        | position.pieces(BitPosition.WHITE * 6 + QUEEN) | position.pieces(BitPosition.BLACK * 6 + QUEEN);
+    long attackers = attackersTo(position, to, occupied, bishops, rooks);
+    int side = position.sideToMove();
+    int res = 1;
+
+    while (true) {
+      side ^= 1;
+      attackers &= occupied;
+      long ours = attackers & position.occupancy(side);
+      if (ours == 0) {
+        break;
+      }
+      res ^= 1;
+      int base = side * 6;
+      long b;
+      if ((b = ours & position.pieces(base + PAWN)) != 0) {
+        if ((swap = Evaluation.PIECE_VALUES[PAWN] - swap) < res) break;
+        occupied ^= b & -b;
+        attackers |= Attacks.bishop(to, occupied) & bishops;
+      } else if ((b = ours & position.pieces(base + KNIGHT)) != 0) {
+        if ((swap = Evaluation.PIECE_VALUES[KNIGHT] - swap) < res) break;
+        occupied ^= b & -b;
+      } else if ((b = ours & position.pieces(base + BISHOP)) != 0) {
+        if ((swap = Evaluation.PIECE_VALUES[BISHOP] - swap) < res) break;
+        occupied ^= b & -b;
+        attackers |= Attacks.bishop(to, occupied) & bishops;
+      } else if ((b = ours & position.pieces(base + ROOK)) != 0) {
+        if ((swap = Evaluation.PIECE_VALUES[ROOK] - swap) < res) break;
+        occupied ^= b & -b;
+        attackers |= Attacks.rook(to, occupied) & rooks;
+      } else if ((b = ours & position.pieces(base + QUEEN)) != 0) {
+        if ((swap = Evaluation.PIECE_VALUES[QUEEN] - swap) < res) break;
+        occupied ^= b & -b;
+        attackers |= (Attacks.bishop(to, occupied) & bishops) | (Attacks.rook(to, occupied) & rooks);
+      } else {
+        //O rei so pode capturar se o outro lado nao tiver mais atacantes.
+        return (attackers & ~position.occupancy(side)) != 0 ? (res ^ 1) == 1 : res == 1;
+      }
+    }
+    return res == 1;
+  }
+
+  private static long attackersTo(BitPosition position, int square, long occupied, long bishops, long rooks) {
+    return (Attacks.pawn(BitPosition.WHITE, square) & position.pieces(BitPosition.BLACK * 6 + PAWN))
+        | (Attacks.pawn(BitPosition.BLACK, square) & position.pieces(BitPosition.WHITE * 6 + PAWN))
+        | (Attacks.knight(square) & (position.pieces(KNIGHT) | position.pieces(6 + KNIGHT)))
+        | (Attacks.king(square) & (position.pieces(KING) | position.pieces(6 + KING)))
+        | (Attacks.bishop(square, occupied) & bishops)
+        | (Attacks.rook(square, occupied) & rooks);
+  }
+
+  private static int value(int piece) {
+    return Evaluation.PIECE_VALUES[piece % 6];
+  }
+}
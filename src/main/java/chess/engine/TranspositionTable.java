@@ -0,0 +1,179 @@
+package chess.engine;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/*
+  TranspositionTable
+    Tabela de tamanho fixo guardada fora do heap (ByteBuffer direto), dividida em
+      segmentos de ate 1 GB para permitir tabelas de varios GB.
+    Cada bucket tem 64 bytes (uma linha de cache) com 4 entradas de 16 bytes:
+      [key ^ data][data]
+    O XOR da chave com os dados permite leitura e escrita sem lock entre threads:
+      se outra thread sobrescreveu metade da entrada, a verificacao da chave falha
+      e a leitura e tratada como um miss.
+
+    Layout de data (64 bits):
+      bits  0-19 movimento
+      bits 20-35 score (com sinal)
+      bits 36-43 profundidade
+      bits 44-45 tipo de limite (EXACT, LOWER, UPPER)
+      bits 46-53 geracao (idade) da busca que gravou a entrada
+ */
+public final class TranspositionTable {
+  public static final int BOUND_NONE = 0;
+  public static final int BOUND_EXACT = 1;
+  public static final int BOUND_LOWER = 2;
+  public static final int BOUND_UPPER = 3;
+
+  private static final int ENTRY_SIZE = 16;
+  private static final int ENTRIES_PER_BUCKET = 4;
+  private static final int BUCKET_SIZE = ENTRY_SIZE * ENTRIES_PER_BUCKET;
+  private static final int SEGMENT_SHIFT = 24;
+  private static final long SEGMENT_MASK = (1L << SEGMENT_SHIFT) - 1;
+
+  private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+  private final ByteBuffer[] segments;
+  private final long bucketMask;
+  private volatile int generation;
+
+  public TranspositionTable(long megabytes) {
+    if (megabytes < 1) {
+      throw new IllegalArgumentException("Transposition table must have at least 1 MB");
+    }
+    long buckets = Long.highestOneBit(megabytes * 1024 * 1024 / BUCKET_SIZE);
+    bucketMask = buckets - 1;
+    int bucketsPerSegment = (int) Math.min(buckets, 1L << SEGMENT_SHIFT);
+    segments = new ByteBuffer[(int) (buckets / bucketsPerSegment)];
+    for (int i = 0; i < segments.length; i++) {
+      segments[i] = ByteBuffer.allocateDirect(bucketsPerSegment * BUCKET_SIZE).order(ByteOrder.nativeOrder());
+    }
+  }
+
+  public long capacity() {
+    return (bucketMask + 1) * ENTRIES_PER_BUCKET;
+  }
+
+  //Chamado no inicio de cada busca para que entradas antigas sejam substituidas primeiro.
+  public void newSearch() {
+    generation = (generation + 1) & 0xFF;
+  }
+
+  public void clear() {
+    for (ByteBuffer segment : segments) {
+      for (int i = 0; i < segment.capacity(); i += 8) {
+        LONGS.setOpaque(segment, i, 0L);
+      }
+    }
+  }
+
+  /*
+    probe
+      Retorna os dados gravados para a chave ou 0 caso a posicao nao esteja na tabela.
+      Os campos sao extraidos com move, score, depth e bound.
+   */
+  public long probe(long key) {
+    ByteBuffer segment = segment(key);
+    int offset = offset(key);
+    for (int i = 0; i < ENTRIES_PER_BUCKET; i++, offset += ENTRY_SIZE) {
+      long check = (long) LONGS.getOpaque(segment, offset);
+      long data = (long) LONGS.getOpaque(segment, offset + 8);
+      if ((check ^ data) == key && data != 0) {
+        return data;
+      }
+    }
+    return 0L;
+  }
+
+  /*
+    store
+      Se a posicao ja esta no bucket a entrada e atualizada.
+      Caso contrario substitui a entrada de menor valor, onde cada geracao de
+        diferenca vale mais que a profundidade (entradas de buscas antigas saem primeiro).
+   */
+  public void store(long key, int move, int score, int depth, int bound) {
+    ByteBuffer segment = segment(key);
+    int base = offset(key);
+    int gen = generation;
+    int replace = base;
+    int worst = Integer.MAX_VALUE;
+    for (int i = 0; i < ENTRIES_PER_BUCKET; i++) {
+      int offset = base + i * ENTRY_SIZE;
+      long check = (long) LONGS.getOpaque(segment, offset);
+      long data = (long) LONGS.getOpaque(segment, offset + 8);
+      if (data == 0 || (check ^ data) == key) {
+        if ((check ^ data) == key && move == 0) {
+          move = move(data);
+        }
+        if ((check ^ data) == key && depth < depth(data) - 2 && bound != BOUND_EXACT && age(data) == gen) {
+          return;
+        }
+        replace = offset;
+        break;
+      }
+      int value = depth(data) - 8 * ((gen - age(data)) & 0xFF);
+      if (value < worst) {
+        worst = value;
+        replace = offset;
+      }
+    }
+    long data = pack(move, score, depth, bound, gen);
+    LONGS.setOpaque(segment, replace, key ^ data);
+    LONGS.setOpaque(segment, replace + 8, data);
+  }
+
+  //Ocupacao em permil, estimada pelas primeiras 1000 entradas.
+  public int hashfull() {
+    int used = 0;
+    int gen = generation;
+    long buckets = Math.min(250, bucketMask + 1);
+    for (long b = 0; b < buckets; b++) {
+      for (int i = 0; i < ENTRIES_PER_BUCKET; i++) {
+        long data = (long) LONGS.getOpaque(segments[0], (int) (b * BUCKET_SIZE + i * ENTRY_SIZE + 8));
+        if (data != 0 && age(data) == gen) {
+          used++;
+        }
+      }
+    }
+    return (int) (used * 1000 / (buckets * ENTRIES_PER_BUCKET));
+  }
+
+  private ByteBuffer segment(long key) {
+    return segments[(int) ((key & bucketMask) >>> SEGMENT_SHIFT)];
+  }
+
+  private int offset(long key) {
+    return (int) (key & bucketMask & SEGMENT_MASK) * BUCKET_SIZE;
+  }
+
+  private static long pack(int move, int score, int depth, int bound, int age) {
+    return (move & 0xFFFFFL)
+        | (score & 0xFFFFL) << 20
+        | (long) (depth & 0xFF) << 36
+        | (long) (bound & 3) << 44
+        | (long) (age & 0xFF) << 46;
+  }
+
+  public static int move(long data) {
+    return (int) (data & 0xFFFFF);
+  }
+
+  public static int score(long data) {
+    return (short) (data >>> 20);
+  }
+
+  public static int depth(long data) {
+    return (int) (data >>> 36) & 0xFF;
+  }
+
+  public static int bound(long data) {
+    return (int) (data >>> 44) & 3;
+  }
+
+  private static int age(long data) {
+    return (int) (data >>> 46) & 0xFF;
+  }
+}
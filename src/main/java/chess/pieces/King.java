@@ -5,6 +5,9 @@ import boardgame.Position;
 import chess.ChessMatch;
 import chess.ChessPiece;
 import chess.Color;
+import chess.PieceType;
+import chess.bitboard.Attacks;
+import chess.bitboard.BitBoard;
 
 public class King extends ChessPiece {
   private ChessMatch chessMatch;
@@ -19,6 +22,11 @@ public class King extends ChessPiece {
     return "K";
   }
 
+  @Override
+  public PieceType getType() {
+    return PieceType.KING;
+  }
+
   private boolean testRookCastling(Position position) {
     ChessPiece p = (ChessPiece)getBoard().piece(position);
     return p != null && p instanceof Rook && p.getColor() == getColor() && p.getMoveCount() == 0;
@@ -31,6 +39,40 @@ public class King extends ChessPiece {
 
   @Override
   public boolean[][] possibleMoves() {
+    boolean[][] mat = getBoard() instanceof BitBoard bitBoard
+        ? toMatrix(Attacks.king(square()) & ~bitBoard.occupancy(getColor()))
+        : adjacentMoves();
+
+    //#specialmove castling
+    //  O rei nao pode estar em check nem passar por uma casa atacada.
+    Color opponent = (getColor() == Color.WHITE) ? Color.BLACK : Color.WHITE;
+    if (getMoveCount() == 0 && !chessMatch.isSquareAttacked(position, opponent)) {
+      //#specialmove castling kingside rook
+      Position post1 = new Position(position.getRow(), position.getColumn() + 3);
+      if (testRookCastling(post1)) {
+        Position p1 = new Position(position.getRow(), position.getColumn() + 1);
+        Position p2 = new Position(position.getRow(), position.getColumn() + 2);
+        if (getBoard().piece(p1) == null && getBoard().piece(p2) == null && !chessMatch.isSquareAttacked(p1, opponent)) {
+          mat[position.getRow()][position.getColumn() + 2] = true;
+        }
+      }
+
+      Position post2 = new Position(position.getRow(), position.getColumn() - 4);
+      if (testRookCastling(post2)) {
+        Position p1 = new Position(position.getRow(), position.getColumn() - 1);
+        Position p2 = new Position(position.getRow(), position.getColumn() - 2);
+        Position p3 = new Position(position.getRow(), position.getColumn() - 3);
+        if (getBoard().piece(p1) == null && getBoard().piece(p2) == null && getBoard().piece(p3) == null && !chessMatch.isSquareAttacked(p1, opponent)) {
+          mat[position.getRow()][position.getColumn() - 2] = true;
+        }
+      }
+    }
+
+    return mat;
+  }
+
+  //Casas vizinhas percorridas uma a uma, usado quando o tabuleiro nao e um BitBoard.
+  private boolean[][] adjacentMoves() {
     boolean[][] mat = new boolean[getBoard().getRows()][getBoard().getColumns()];
 
     Position p = new Position(0,0);
@@ -82,29 +124,6 @@ public class King extends ChessPiece {
     if (getBoard().positionExists(p) && canMove(p)) {
       mat[p.getRow()][p.getColumn()] = true;
     }
-    
-    //#specialmove castling
-    if (getMoveCount() == 0 && !chessMatch.getCheck()) {
-      //#specialmove castling kingside rook
-      Position post1 = new Position(position.getRow(), position.getColumn() + 3);
-      if (testRookCastling(post1)) {
-        Position p1 = new Position(position.getRow(), position.getColumn() + 1);
-        Position p2 = new Position(position.getRow(), position.getColumn() + 2);
-        if (getBoard().piece(p1) == null && getBoard().piece(p2) == null) {
-          mat[position.getRow()][position.getColumn() + 2] = true;
-        }
-      }
-
-      Position post2 = new Position(position.getRow(), position.getColumn() - 4);
-      if (testRookCastling(post2)) {
-        Position p1 = new Position(position.getRow(), position.getColumn() - 1);
-        Position p2 = new Position(position.getRow(), position.getColumn() - 2);
-        Position p3 = new Position(position.getRow(), position.getColumn() - 3);
-        if (getBoard().piece(p1) == null && getBoard().piece(p2) == null && getBoard().piece(p3) == null) {
-          mat[position.getRow()][position.getColumn() - 2] = true;
-        }
-      }
-    }
 
     return mat;
   }
@@ -4,6 +4,9 @@ import boardgame.Board;
 import boardgame.Position;
 import chess.ChessPiece;
 import chess.Color;
+import chess.PieceType;
+import chess.bitboard.Attacks;
+import chess.bitboard.BitBoard;
 
 public class Knight extends ChessPiece {
   public Knight(Board board, Color color) {
@@ -15,6 +18,11 @@ public class Knight extends ChessPiece {
     return "N";
   }
 
+  @Override
+  public PieceType getType() {
+    return PieceType.KNIGHT;
+  }
+
   private boolean canMove(Position position) {
     ChessPiece p = (ChessPiece) getBoard().piece(position);
     return p == null || p.getColor() != getColor();
@@ -22,6 +30,10 @@ public class Knight extends ChessPiece {
 
   @Override
   public boolean[][] possibleMoves() {
+    if (getBoard() instanceof BitBoard bitBoard) {
+      return toMatrix(Attacks.knight(square()) & ~bitBoard.occupancy(getColor()));
+    }
+
     boolean[][] mat = new boolean[getBoard().getRows()][getBoard().getColumns()];
 
     Position p = new Position(0,0);
@@ -5,6 +5,10 @@ import boardgame.Position;
 import chess.ChessMatch;
 import chess.ChessPiece;
 import chess.Color;
+import chess.PieceType;
+import chess.bitboard.Attacks;
+import chess.bitboard.BitBoard;
+import chess.bitboard.Bitboards;
 
 public class Pawn extends ChessPiece {
   private ChessMatch chessMatch;
@@ -18,8 +22,17 @@ public class Pawn extends ChessPiece {
     return "P";
   }
 
+  @Override
+  public PieceType getType() {
+    return PieceType.PAWN;
+  }
+
   @Override
   public boolean[][] possibleMoves() {
+    if (getBoard() instanceof BitBoard bitBoard) {
+      return toMatrix(bitboardMoves(bitBoard));
+    }
+
     boolean[][] mat = new boolean[getBoard().getRows()][getBoard().getColumns()];
     Position p = new Position(0, 0);
 
@@ -87,4 +100,31 @@ public class Pawn extends ChessPiece {
 
     return mat;
   }
+
+  /*
+    bitboardMoves
+      Avancos e capturas a partir das tabelas de Attacks.
+      #specialmove en passant: a casa atras do peao vulneravel entra como captura
+        quando esta entre as casas atacadas (o peao vulneravel fica ao lado, na mesma fileira).
+   */
+  private long bitboardMoves(BitBoard bitBoard) {
+    int color = getColor().ordinal();
+    int square = square();
+    long attacks = Attacks.pawn(color, square);
+    long targets = Attacks.pawnPushes(color, square, bitBoard.occupied(), getMoveCount() == 0)
+        | attacks & bitBoard.occupancy(getColor() == Color.WHITE ? Color.BLACK : Color.WHITE);
+
+    ChessPiece vulnerable = chessMatch.getEnPassantVulnerable();
+    if (vulnerable != null && vulnerable.getColor() != getColor()) {
+      int forward = getColor() == Color.WHITE ? -8 : 8;
+      for (long a = attacks; a != 0; a &= a - 1) {
+        int behind = Bitboards.first(a);
+        int side = behind - forward;
+        if (bitBoard.piece(Bitboards.row(side), Bitboards.column(side)) == vulnerable) {
+          targets |= Bitboards.bit(behind);
+        }
+      }
+    }
+    return targets;
+  }
 }
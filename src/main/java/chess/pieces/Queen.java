@@ -4,6 +4,9 @@ import boardgame.Board;
 import boardgame.Position;
 import chess.ChessPiece;
 import chess.Color;
+import chess.PieceType;
+import chess.bitboard.Attacks;
+import chess.bitboard.BitBoard;
 
 public class Queen extends ChessPiece {
 
@@ -16,8 +19,18 @@ public class Queen extends ChessPiece {
     return "Q";
   }
 
+  @Override
+  public PieceType getType() {
+    return PieceType.QUEEN;
+  }
+
   @Override
   public boolean[][] possibleMoves() {
+    //No BitBoard o ataque vem da tabela de magic bitboards; senao percorre os raios.
+    if (getBoard() instanceof BitBoard bitBoard) {
+      return toMatrix(Attacks.queen(square(), bitBoard.occupied()) & ~bitBoard.occupancy(getColor()));
+    }
+
     boolean[][] mat = new boolean[getBoard().getRows()][getBoard().getColumns()];
     Position p = new Position(0, 0);
 
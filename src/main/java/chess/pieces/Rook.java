@@ -4,6 +4,9 @@ import boardgame.Board;
 import boardgame.Position;
 import chess.ChessPiece;
 import chess.Color;
+import chess.PieceType;
+import chess.bitboard.Attacks;
+import chess.bitboard.BitBoard;
 
 public class Rook extends ChessPiece {
   public Rook(Board board, Color color) {
@@ -15,8 +18,18 @@ public class Rook extends ChessPiece {
     return "R";
   }
 
+  @Override
+  public PieceType getType() {
+    return PieceType.ROOK;
+  }
+
   @Override
   public boolean[][] possibleMoves() {
+    //No BitBoard o ataque vem da tabela de magic bitboards; senao percorre os raios.
+    if (getBoard() instanceof BitBoard bitBoard) {
+      return toMatrix(Attacks.rook(square(), bitBoard.occupied()) & ~bitBoard.occupancy(getColor()));
+    }
+
     boolean[][] mat = new boolean[getBoard().getRows()][getBoard().getColumns()];
     Position p = new Position(0, 0);
 
@@ -0,0 +1,89 @@
+package chess.server;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+  GameServer
+    Servidor TCP de partidas com protocolo de linhas (ver MatchSession). Cada conexao
+      tem sua thread (virtual quando possivel, ver ServerThreads) e sua ChessMatch, que
+      so essa thread acessa: as partidas nao compartilham estado e nao precisam de locks.
+    O que e compartilhado sao so os contadores e o histograma de latencia do servidor.
+ */
+public class GameServer implements AutoCloseable {
+  private static final int BACKLOG = 4096;
+
+  private final ServerSocket serverSocket;
+  private final ThreadFactory threads = ServerThreads.factory("match");
+  private final LatencyHistogram latency = new LatencyHistogram();
+  private final AtomicInteger connections = new AtomicInteger();
+  private final AtomicLong matches = new AtomicLong();
+  private Thread acceptor;
+
+  public GameServer(int port) throws IOException {
+    serverSocket = new ServerSocket();
+    serverSocket.setReuseAddress(true);
+    serverSocket.bind(new InetSocketAddress(port), BACKLOG);
+  }
+
+  //Comeca a aceitar conexoes em uma thread propria e retorna.
+  public synchronized void start() {
+    if (acceptor != null) {
+      throw new IllegalStateException("Server already started");
+    }
+    acceptor = new Thread(this::acceptLoop, "game-server-accept");
+    acceptor.start();
+  }
+
+  public int port() {
+    return serverSocket.getLocalPort();
+  }
+
+  //Conexoes abertas agora (cada uma com a sua partida).
+  public int connections() {
+    return connections.get();
+  }
+
+  //Partidas iniciadas desde o start.
+  public long matches() {
+    return matches.get();
+  }
+
+  //Tempo de cada lance executado no servidor, de todas as partidas.
+  public LatencyHistogram latency() {
+    return latency;
+  }
+
+  void matchStarted() {
+    matches.incrementAndGet();
+  }
+
+  void connectionClosed() {
+    connections.decrementAndGet();
+  }
+
+  private void acceptLoop() {
+    while (!serverSocket.isClosed()) {
+      try {
+        Socket socket = serverSocket.accept();
+        connections.incrementAndGet();
+        threads.newThread(new MatchSession(socket, this)).start();
+      } catch (IOException e) {
+        if (serverSocket.isClosed()) {
+          return;
+        }
+      }
+    }
+  }
+
+  //Para de aceitar conexoes; as que ja estao abertas terminam quando o cliente sair.
+  @Override
+  public void close() throws IOException {
+    serverSocket.close();
+  }
+}
@@ -0,0 +1,98 @@
+package chess.server;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/*
+  LatencyHistogram
+    Histograma de latencias em nanossegundos, seguro para varias threads e de tamanho
+      fixo (7,5 KB), para somar as medidas de todas as partidas sem guardar cada uma.
+    Faixas log-lineares: cada potencia de 2 e dividida em 16 faixas, entao um percentil
+      tem erro de no maximo 1/16 (~6%).
+ */
+public class LatencyHistogram {
+  private static final int SUB_BITS = 4;
+  private static final int SUB_BUCKETS = 1 << SUB_BITS;
+  private static final int BUCKETS = (64 - SUB_BITS) * SUB_BUCKETS;
+
+  private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+  private final AtomicLong count = new AtomicLong();
+  private final AtomicLong max = new AtomicLong();
+
+  public void record(long nanos) {
+    long value = Math.max(0, nanos);
+    counts.incrementAndGet(bucket(value));
+    count.incrementAndGet();
+    max.accumulateAndGet(value, Math::max);
+  }
+
+  public long count() {
+    return count.get();
+  }
+
+  public long max() {
+    return max.get();
+  }
+
+  //Latencia (ns) abaixo da qual ficam percent% das medidas; 0 sem medidas.
+  public long percentile(double percent) {
+    return percentile(snapshot(), percent);
+  }
+
+  //Copia das faixas, para calcular varios percentis sobre as mesmas medidas enquanto outras threads gravam.
+  private long[] snapshot() {
+    long[] snapshot = new long[BUCKETS];
+    for (int i = 0; i < BUCKETS; i++) {
+      snapshot[i] = counts.get(i);
+    }
+    return snapshot;
+  }
+
+  private long percentile(long[] snapshot, double percent) {
+    long total = 0;
+    for (long c : snapshot) {
+      total += c;
+    }
+    if (total == 0) {
+      return 0;
+    }
+    long rank = Math.max(1, (long) Math.ceil(percent / 100 * total));
+    long seen = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      seen += snapshot[i];
+      if (seen >= rank) {
+        return Math.min(middle(i), max.get());
+      }
+    }
+    return max.get();
+  }
+
+  private static int bucket(long value) {
+    if (value < SUB_BUCKETS) {
+      return (int) value;
+    }
+    int exponent = 63 - Long.numberOfLeadingZeros(value);
+    int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+    return (exponent - SUB_BITS + 1) * SUB_BUCKETS + sub;
+  }
+
+  //Valor central da faixa.
+  private static long middle(int bucket) {
+    if (bucket < SUB_BUCKETS) {
+      return bucket;
+    }
+    int shift = bucket / SUB_BUCKETS - 1;
+    long low = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+    return low + (1L << shift) / 2;
+  }
+
+  //"n=... p50=...us p90=...us p99=...us p99.9=...us max=...us"
+  @Override
+  public String toString() {
+    long[] snapshot = snapshot();
+    return String.format(Locale.ROOT, "n=%d p50=%.1fus p90=%.1fus p99=%.1fus p99.9=%.1fus max=%.1fus", count(),
+        percentile(snapshot, 50) / 1e3, percentile(snapshot, 90) / 1e3, percentile(snapshot, 99) / 1e3,
+        percentile(snapshot, 99.9) / 1e3, max() / 1e3);
+  }
+}
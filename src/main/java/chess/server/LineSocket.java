@@ -0,0 +1,71 @@
+package chess.server;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+/*
+  LineSocket
+    Linhas ASCII terminadas em '\n' sobre um Socket, usado pelos dois lados do
+      protocolo do GameServer.
+    Os buffers sao pequenos (512 bytes) porque com dezenas de milhares de conexoes
+      os 8 KB de cada Reader/Writer padrao pesam; cada linha e enviada com um unico
+      write, sem buffer de saida para esvaziar.
+ */
+public class LineSocket implements Closeable {
+  private static final int BUFFER_SIZE = 512;
+  private static final int MAX_LINE = 4096;
+
+  private final Socket socket;
+  private final InputStream in;
+  private final OutputStream out;
+  private final byte[] buffer = new byte[BUFFER_SIZE];
+  private final StringBuilder line = new StringBuilder(64);
+  private int position;
+  private int limit;
+
+  public LineSocket(Socket socket) throws IOException {
+    this.socket = socket;
+    socket.setTcpNoDelay(true);
+    in = socket.getInputStream();
+    out = socket.getOutputStream();
+  }
+
+  public static LineSocket connect(String host, int port) throws IOException {
+    return new LineSocket(new Socket(host, port));
+  }
+
+  //Linha sem o '\n' (e sem '\r'), ou null quando o outro lado fechar a conexao.
+  public String readLine() throws IOException {
+    line.setLength(0);
+    while (true) {
+      if (position == limit) {
+        limit = in.read(buffer);
+        position = 0;
+        if (limit <= 0) {
+          limit = 0;
+          return line.length() > 0 ? line.toString() : null;
+        }
+      }
+      byte c = buffer[position++];
+      if (c == '\n') {
+        return line.toString();
+      }
+      if (c != '\r' && line.length() < MAX_LINE) {
+        line.append((char) c);
+      }
+    }
+  }
+
+  public void writeLine(String text) throws IOException {
+    out.write((text + "\n").getBytes(StandardCharsets.US_ASCII));
+  }
+
+  @Override
+  public void close() throws IOException {
+    socket.close();
+  }
+}
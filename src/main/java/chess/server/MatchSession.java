@@ -0,0 +1,142 @@
+package chess.server;
+
+import chess.ChessException;
+import chess.ChessMatch;
+import chess.Fen;
+import chess.bitboard.Move;
+import chess.bitboard.MoveList;
+
+import java.io.IOException;
+import java.net.Socket;
+import java.util.Arrays;
+import java.util.Locale;
+
+/*
+  MatchSession
+    Uma conexao do GameServer: le comandos, um por linha, e responde uma linha
+      comecando com "ok", "error" ou "bye". A partida pertence a esta thread.
+
+    Comandos
+      new [fen]     nova partida (posicao inicial ou FEN)        ok <fen>
+      move <lance>  lance em coordenadas ("e2e4", "e7e8n")       ok <lance> [check|checkmate]
+      moves         movimentos legais do jogador da vez          ok <lance> <lance> ...
+      fen           posicao atual                                ok <fen>
+      stats         latencia dos lances desta partida            ok n=... p50=...us ...
+      quit          fecha a conexao                              bye
+
+    A latencia de um lance e o tempo do servidor para validar e executar o comando
+      move, sem a rede; cada partida guarda as suas medidas e o servidor soma todas.
+ */
+class MatchSession implements Runnable {
+  private final Socket socket;
+  private final GameServer server;
+  private final MoveList legal = new MoveList();
+  private ChessMatch match;
+  private int[] latencies = new int[128];
+  private int moves;
+
+  MatchSession(Socket socket, GameServer server) {
+    this.socket = socket;
+    this.server = server;
+  }
+
+  @Override
+  public void run() {
+    try (Socket s = socket; LineSocket connection = new LineSocket(s)) {
+      newMatch(null);
+      String request;
+      while ((request = connection.readLine()) != null) {
+        String response = execute(request.trim());
+        connection.writeLine(response);
+        if (response.equals("bye")) {
+          break;
+        }
+      }
+    } catch (IOException e) {
+      //Cliente desconectou; a partida e descartada.
+    } finally {
+      server.connectionClosed();
+    }
+  }
+
+  private String execute(String text) {
+    int space = text.indexOf(' ');
+    String command = space < 0 ? text : text.substring(0, space);
+    String argument = space < 0 ? "" : text.substring(space + 1).trim();
+    try {
+      return switch (command) {
+        case "move" -> move(argument);
+        case "moves" -> legalMoves();
+        case "new" -> {
+          newMatch(argument.isEmpty() ? null : argument);
+          yield "ok " + Fen.toFen(match);
+        }
+        case "fen" -> "ok " + Fen.toFen(match);
+        case "stats" -> "ok " + stats();
+        case "quit" -> "bye";
+        default -> "error Unknown command: " + command;
+      };
+    } catch (ChessException e) {
+      return "error " + e.getMessage();
+    } catch (RuntimeException e) {
+      //Erro interno: a conexao continua e o cliente recebe o motivo em vez de ver o socket fechar.
+      return "error Internal error: " + e;
+    }
+  }
+
+  private String move(String text) {
+    long start = System.nanoTime();
+    int move = Move.parse(text);
+    if (move == Move.NONE) {
+      return "error Invalid move: " + text;
+    }
+    if (match.getCheckMate()) {
+      return "error The match is over";
+    }
+    match.performChessMove(move);
+    String status = match.getCheckMate() ? " checkmate" : match.getCheck() ? " check" : "";
+    record(System.nanoTime() - start);
+    return "ok " + text + status;
+  }
+
+  private String legalMoves() {
+    StringBuilder sb = new StringBuilder("ok");
+    if (!match.getCheckMate()) {
+      match.legalMoves(legal);
+      for (int i = 0; i < legal.size(); i++) {
+        sb.append(' ').append(Move.toString(legal.get(i)));
+      }
+    }
+    return sb.toString();
+  }
+
+  private void newMatch(String fen) {
+    match = fen != null ? Fen.load(fen) : new ChessMatch();
+    moves = 0;
+    server.matchStarted();
+  }
+
+  private void record(long nanos) {
+    if (moves == latencies.length) {
+      latencies = Arrays.copyOf(latencies, moves * 2);
+    }
+    latencies[moves++] = (int) Math.min(nanos, Integer.MAX_VALUE);
+    server.latency().record(nanos);
+  }
+
+  //Percentis exatos das medidas desta conexao.
+  private String stats() {
+    if (moves == 0) {
+      return "n=0";
+    }
+    int[] sorted = Arrays.copyOf(latencies, moves);
+    Arrays.sort(sorted);
+    return String.format(Locale.ROOT, "n=%d p50=%.1fus p90=%.1fus p99=%.1fus max=%.1fus", moves,
+        percentile(sorted, 50) / 1e3, percentile(sorted, 90) / 1e3, percentile(sorted, 99) / 1e3, sorted[moves - 1] / 1e3);
+  }
+
+  private static int percentile(int[] sorted, double percent) {
+    int rank = (int) Math.ceil(percent / 100 * sorted.length);
+    return sorted[Math.max(0, rank - 1)];
+  }
+}
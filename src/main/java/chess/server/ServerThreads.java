@@ -0,0 +1,47 @@
+package chess.server;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+  ServerThreads
+    Uma thread por conexao: virtual (Thread.ofVirtual) quando a JVM for 21 ou mais
+      nova, o que permite dezenas de milhares de conexoes com poucas threads do
+      sistema; senao, threads de plataforma com pilha pequena.
+    A thread virtual e criada por reflexao para o projeto continuar compilando em Java 17.
+ */
+public final class ServerThreads {
+  private static final long PLATFORM_STACK_SIZE = 256 * 1024;
+
+  private ServerThreads() {
+  }
+
+  public static ThreadFactory factory(String name) {
+    ThreadFactory virtual = virtualFactory(name);
+    if (virtual != null) {
+      return virtual;
+    }
+    AtomicLong count = new AtomicLong();
+    return r -> {
+      Thread t = new Thread(null, r, name + "-" + count.getAndIncrement(), PLATFORM_STACK_SIZE);
+      t.setDaemon(true);
+      return t;
+    };
+  }
+
+  public static boolean virtualAvailable() {
+    return virtualFactory("probe") != null;
+  }
+
+  //Thread.ofVirtual().name(name + "-", 0).factory(), ou null antes do Java 21.
+  private static ThreadFactory virtualFactory(String name) {
+    try {
+      Class<?> builder = Class.forName("java.lang.Thread$Builder");
+      Object ofVirtual = Thread.class.getMethod("ofVirtual").invoke(null);
+      Object named = builder.getMethod("name", String.class, long.class).invoke(ofVirtual, name + "-", 0L);
+      return (ThreadFactory) builder.getMethod("factory").invoke(named);
+    } catch (ReflectiveOperationException e) {
+      return null;
+    }
+  }
+}